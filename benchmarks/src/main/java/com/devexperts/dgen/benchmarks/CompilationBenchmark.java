@@ -0,0 +1,252 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.devexperts.dgen.DgenProcessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * End-to-end benchmark of dgen overhead: compiles {@link SourceCorpus synthetic corpus} with
+ * {@link JavaCompiler} in the current thread with and without {@link DgenProcessor} and writes
+ * median wall time, CPU time and allocated bytes of both, and the overhead per 1000 elements, as JSON.
+ * <p>
+ * Arguments (all optional): {@code --classes=200 --members=10 --javadocSentences=3 --nestingDepth=1
+ * --inlineTagShare=0.2 --warmup=3 --iterations=10 --output=compilation-result.json}.
+ * On Java 9+ the JVM should be started with {@code --add-exports} of javac internals, see README.
+ */
+public class CompilationBenchmark {
+
+    private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put("classes", "200");
+        DEFAULTS.put("members", "10");
+        DEFAULTS.put("javadocSentences", "3");
+        DEFAULTS.put("nestingDepth", "1");
+        DEFAULTS.put("inlineTagShare", "0.2");
+        DEFAULTS.put("warmup", "3");
+        DEFAULTS.put("iterations", "10");
+        DEFAULTS.put("output", "compilation-result.json");
+    }
+
+    private final SourceCorpus corpus;
+    private final Path directory;
+    private final List<Path> sourceFiles = new ArrayList<>();
+    private final Path configuration;
+
+    CompilationBenchmark(SourceCorpus corpus, Path directory) throws IOException {
+        this.corpus = corpus;
+        this.directory = directory;
+        for (Map.Entry<String, String> source : corpus.getSources().entrySet()) {
+            Path file = directory.resolve("src").resolve(source.getKey().replace('.', '/') + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, source.getValue().getBytes(StandardCharsets.UTF_8));
+            sourceFiles.add(file);
+        }
+        configuration = directory.resolve("dgen.config");
+        Files.write(configuration, corpus.getConfiguration().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArguments(args, DEFAULTS);
+        SourceCorpus corpus = new SourceCorpus(
+            Integer.parseInt(options.get("classes")),
+            Integer.parseInt(options.get("members")),
+            Integer.parseInt(options.get("javadocSentences")),
+            Integer.parseInt(options.get("nestingDepth")),
+            Double.parseDouble(options.get("inlineTagShare")));
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int iterations = Integer.parseInt(options.get("iterations"));
+
+        Path directory = Files.createTempDirectory("dgen-corpus");
+        try {
+            CompilationBenchmark benchmark = new CompilationBenchmark(corpus, directory);
+            String json = benchmark.run(warmup, iterations);
+            Files.write(Paths.get(options.get("output")), json.getBytes(StandardCharsets.UTF_8));
+            System.out.println(json);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Runs both compilations alternately and returns results as JSON.
+     */
+    String run(int warmup, int iterations) throws IOException {
+        for (int i = 0; i < warmup; i++) {
+            compile(false);
+            compile(true);
+        }
+        Samples javac = new Samples();
+        Samples dgen = new Samples();
+        for (int i = 0; i < iterations; i++) {
+            javac.add(compile(false));
+            dgen.add(compile(true));
+        }
+        return "{\n" +
+            "  \"version\": \"" + version() + "\",\n" +
+            "  \"java\": \"" + System.getProperty("java.version") + "\",\n" +
+            "  \"corpus\": " + corpus.toJson() + ",\n" +
+            "  \"iterations\": " + iterations + ",\n" +
+            "  \"javac\": " + javac.toJson(1) + ",\n" +
+            "  \"dgen\": " + dgen.toJson(1) + ",\n" +
+            "  \"overheadPer1kElements\": " + dgen.minus(javac).toJson(1000.0 / corpus.getElementCount()) + "\n" +
+            "}\n";
+    }
+
+    /**
+     * Compiles the corpus and returns wall time and CPU time in nanoseconds and allocated bytes.
+     */
+    long[] compile(boolean withDgen) throws IOException {
+        Path output = Files.createDirectories(directory.resolve(withDgen ? "dgen-classes" : "javac-classes"));
+        List<String> options = new ArrayList<>(Arrays.asList(
+            "-d", output.toString(),
+            "-classpath", System.getProperty("java.class.path"),
+            "-encoding", "UTF-8"
+        ));
+        if (withDgen) {
+            options.add("-Adgen.config=" + configuration);
+        } else {
+            options.add("-proc:none");
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long wallTime = System.nanoTime();
+        long cpuTime = threads.getCurrentThreadCpuTime();
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        // diagnostics are collected to keep processor messages out of the output
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager =
+            compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8))
+        {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                fileManager.getJavaFileObjectsFromFiles(
+                    sourceFiles.stream().map(Path::toFile).collect(Collectors.toList())));
+            task.setProcessors(withDgen ?
+                Collections.singletonList(new DgenProcessor()) : Collections.emptyList());
+            if (!task.call()) {
+                throw new IllegalStateException("Compilation of corpus failed: " +
+                    diagnostics.getDiagnostics().stream()
+                        .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                        .map(d -> d.getMessage(Locale.ROOT))
+                        .collect(Collectors.toList()));
+            }
+        }
+        long[] result = {
+            System.nanoTime() - wallTime,
+            threads.getCurrentThreadCpuTime() - cpuTime,
+            threads.getThreadAllocatedBytes(threadId) - allocated
+        };
+        delete(output);
+        return result;
+    }
+
+    /**
+     * Parses {@code --name=value} arguments, only names from {@code defaults} are supported.
+     *
+     * @return map: name -&gt; value, values of missing arguments are taken from {@code defaults}.
+     */
+    static Map<String, String> parseArguments(String[] args, Map<String, String> defaults) {
+        Map<String, String> options = new HashMap<>(defaults);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !defaults.containsKey(arg.substring(2, separator)))
+                throw new IllegalArgumentException("Unknown argument " + arg + ", supported: " + defaults);
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    static String version() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = CompilationBenchmark.class.getResourceAsStream("version.properties")) {
+            if (in != null)
+                properties.load(in);
+        }
+        return properties.getProperty("version", "unknown");
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Measured wall time, CPU time and allocated bytes of compilations.
+     */
+    private static class Samples {
+        private final List<long[]> samples = new ArrayList<>();
+
+        void add(long[] sample) {
+            samples.add(sample);
+        }
+
+        long median(int metric) {
+            long[] values = samples.stream().mapToLong(sample -> sample[metric]).sorted().toArray();
+            return values[values.length / 2];
+        }
+
+        /**
+         * Returns difference of medians as a single sample.
+         */
+        Samples minus(Samples other) {
+            Samples result = new Samples();
+            result.add(new long[] {median(0) - other.median(0), median(1) - other.median(1),
+                median(2) - other.median(2)});
+            return result;
+        }
+
+        String toJson(double scale) {
+            return String.format(Locale.ROOT, "{\"wallMillis\": %.3f, \"cpuMillis\": %.3f, \"allocatedBytes\": %d}",
+                median(0) * scale / 1e6, median(1) * scale / 1e6, Math.round(median(2) * scale));
+        }
+    }
+}
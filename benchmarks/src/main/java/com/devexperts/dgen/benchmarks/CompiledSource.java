@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.tools.javac.tree.JCTree;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Source attributed by javac, gives access to its declarations and Javadoc comments
+ * in the same form as the processor gets them.
+ */
+class CompiledSource {
+
+    private final Map<String, JCTree.JCClassDecl> classes = new HashMap<>();
+    private final Map<String, JCTree.JCMethodDecl> methods = new HashMap<>();
+    private final Map<JCTree, DocCommentTree> comments = new HashMap<>();
+
+    /**
+     * @param className qualified name of the top-level class.
+     * @param source    source code.
+     */
+    CompiledSource(String className, String source) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject file = new SimpleJavaFileObject(
+            URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavacTask task = (JavacTask) compiler.getTask(null, null, null,
+            Collections.singletonList("-proc:none"), null, Collections.singletonList(file));
+        Iterable<? extends CompilationUnitTree> units = task.parse();
+        task.analyze();
+        DocTrees docTrees = DocTrees.instance(task);
+        for (CompilationUnitTree unit : units) {
+            new TreePathScanner<Void, Void>() {
+                @Override
+                public Void visitClass(ClassTree tree, Void aVoid) {
+                    classes.put(tree.getSimpleName().toString(), (JCTree.JCClassDecl) tree);
+                    addComment(getCurrentPath(), (JCTree) tree);
+                    return super.visitClass(tree, aVoid);
+                }
+
+                @Override
+                public Void visitMethod(MethodTree tree, Void aVoid) {
+                    methods.put(tree.getName().toString(), (JCTree.JCMethodDecl) tree);
+                    addComment(getCurrentPath(), (JCTree) tree);
+                    return super.visitMethod(tree, aVoid);
+                }
+
+                private void addComment(TreePath path, JCTree tree) {
+                    DocCommentTree comment = docTrees.getDocCommentTree(path);
+                    if (comment != null)
+                        comments.put(tree, comment);
+                }
+            }.scan(unit, null);
+        }
+    }
+
+    JCTree.JCClassDecl getClass(String simpleName) {
+        return require(classes.get(simpleName), simpleName);
+    }
+
+    JCTree.JCMethodDecl getMethod(String name) {
+        return require(methods.get(name), name);
+    }
+
+    DocCommentTree getComment(JCTree tree) {
+        return require(comments.get(tree), tree);
+    }
+
+    private static <T> T require(T value, Object name) {
+        if (value == null)
+            throw new IllegalArgumentException("Not found in source: " + name);
+        return value;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.devexperts.dgen.configuration.ClassRule;
+import com.devexperts.dgen.configuration.Configuration;
+import com.devexperts.dgen.configuration.ConfigurationReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of configuration file and of {@code @dgen.annotate} rules from Javadoc.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationReaderBenchmark {
+
+    private static final String INLINE_RULE =
+        "options { retrieveStrategy = firstParagraph; } " +
+        "method { access = public; isStatic = false; } " +
+        "field { name = \"[A-Z_]+\"; isStatic = true; }";
+
+    /**
+     * Number of class rules in configuration file.
+     */
+    @Param({"3", "300"})
+    public int classRules;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("dgen", ".config");
+        Files.write(file, configuration(classRules).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Configuration readConfigurationFromFile() throws IOException {
+        return ConfigurationReader.readConfigurationFromFile(file.toString());
+    }
+
+    @Benchmark
+    public ClassRule readClassRuleFromComment() {
+        return ConfigurationReader.readClassRuleFromComment(INLINE_RULE);
+    }
+
+    static String configuration(int classRules) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < classRules; i++) {
+            builder.append("# rule ").append(i).append('\n')
+                .append("class {\n")
+                .append("    name = \"com\\.example\\.module").append(i).append("\\..*\";\n")
+                .append("    extendsOrImplements = \"java.lang.Runnable\";\n")
+                .append("    options { retrieveStrategy = firstSentence; annotateClass = true; }\n")
+                .append("    method { access = public|protected; isStatic = false; }\n")
+                .append("    field { name = \"[A-Z_]+\"; isStatic = true; }\n")
+                .append("}\n");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.devexperts.annotation.Description;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading descriptions via {@link Description} annotations (reflection)
+ * with reading them from generated {@code $Descriptions} companion classes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DescriptionLookupBenchmark {
+
+    private Field field;
+    private Method method;
+    private String fieldKey;
+    private String methodKey;
+    private String parameterKey;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        field = DescribedSample.class.getField("retries");
+        method = DescribedSample.class.getMethod("connect", String.class, long.class);
+        // non-constant keys, so that switch is not folded
+        fieldKey = new String("retries");
+        methodKey = new String("connect(java.lang.String,long)");
+        parameterKey = new String("connect(java.lang.String,long)#1");
+    }
+
+    @Benchmark
+    public String classAnnotation() {
+        return DescribedSample.class.getAnnotation(Description.class).value();
+    }
+
+    @Benchmark
+    public String fieldAnnotation() {
+        return field.getAnnotation(Description.class).value();
+    }
+
+    @Benchmark
+    public String methodAnnotation() {
+        return method.getAnnotation(Description.class).value();
+    }
+
+    @Benchmark
+    public String parameterAnnotation() {
+        for (Annotation annotation : method.getParameterAnnotations()[1]) {
+            if (annotation instanceof Description)
+                return ((Description) annotation).value();
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String classCompanion() {
+        return DescribedSample$Descriptions.describe("");
+    }
+
+    @Benchmark
+    public String fieldCompanion() {
+        return DescribedSample$Descriptions.describe(fieldKey);
+    }
+
+    @Benchmark
+    public String methodCompanion() {
+        return DescribedSample$Descriptions.describe(methodKey);
+    }
+
+    @Benchmark
+    public String parameterCompanion() {
+        return DescribedSample$Descriptions.describe(parameterKey);
+    }
+
+    @Benchmark
+    public String methodCompanionConstant() {
+        return DescribedSample$Descriptions.CONNECT_JAVA_LANG_STRING_LONG;
+    }
+}
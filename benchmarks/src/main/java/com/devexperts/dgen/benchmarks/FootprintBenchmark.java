@@ -0,0 +1,244 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.devexperts.dgen.DgenProcessor;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Runtime footprint of generated annotations: compiles {@link SourceCorpus synthetic corpus} with every
+ * {@code retrieveStrategy}, with and without method parameters (so with and without parameter annotations),
+ * and without dgen as a baseline. For each variant class-file bytes and constant pool entries are counted,
+ * then compiled classes are loaded and linked in fresh class loaders to measure median metaspace use
+ * and load time. Results are written as JSON.
+ * <p>
+ * Arguments (all optional): {@code --classes=200 --members=10 --javadocSentences=3 --nestingDepth=1
+ * --warmup=3 --iterations=10 --output=footprint-result.json}.
+ * On Java 9+ the JVM should be started with {@code --add-exports} of javac internals, see README.
+ */
+public class FootprintBenchmark {
+
+    private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put("classes", "200");
+        DEFAULTS.put("members", "10");
+        DEFAULTS.put("javadocSentences", "3");
+        DEFAULTS.put("nestingDepth", "1");
+        DEFAULTS.put("warmup", "3");
+        DEFAULTS.put("iterations", "10");
+        DEFAULTS.put("output", "footprint-result.json");
+    }
+
+    // null means compilation without dgen
+    private static final List<String> STRATEGIES =
+        Arrays.asList(null, "firstSentence", "firstParagraph", "returnTag", "all");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = CompilationBenchmark.parseArguments(args, DEFAULTS);
+        int warmup = Integer.parseInt(options.get("warmup"));
+        int iterations = Integer.parseInt(options.get("iterations"));
+
+        Path directory = Files.createTempDirectory("dgen-footprint");
+        try {
+            List<String> results = new ArrayList<>();
+            String corpusJson = null;
+            for (boolean methodParameters : new boolean[] {true, false}) {
+                SourceCorpus corpus = new SourceCorpus(
+                    Integer.parseInt(options.get("classes")),
+                    Integer.parseInt(options.get("members")),
+                    Integer.parseInt(options.get("javadocSentences")),
+                    Integer.parseInt(options.get("nestingDepth")),
+                    0, methodParameters);
+                if (corpusJson == null)
+                    corpusJson = corpus.toJson();
+                for (String strategy : STRATEGIES) {
+                    Path variant = directory.resolve((strategy != null ? strategy : "javac") +
+                        (methodParameters ? "-parameters" : ""));
+                    Path classes = compile(corpus, strategy, variant);
+                    results.add("    {\"strategy\": " + (strategy != null ? "\"" + strategy + "\"" : "null") +
+                        ", \"methodParameters\": " + methodParameters + ", " +
+                        measure(classes, warmup, iterations) + "}");
+                }
+            }
+            String json = "{\n" +
+                "  \"version\": \"" + CompilationBenchmark.version() + "\",\n" +
+                "  \"java\": \"" + System.getProperty("java.version") + "\",\n" +
+                "  \"corpus\": " + corpusJson + ",\n" +
+                "  \"iterations\": " + iterations + ",\n" +
+                "  \"results\": [\n" + String.join(",\n", results) + "\n  ]\n" +
+                "}\n";
+            Files.write(Paths.get(options.get("output")), json.getBytes(StandardCharsets.UTF_8));
+            System.out.println(json);
+        } finally {
+            CompilationBenchmark.delete(directory);
+        }
+    }
+
+    /**
+     * Compiles the corpus with specified retrieve strategy or without dgen if it is {@code null}.
+     *
+     * @return directory with compiled classes.
+     */
+    static Path compile(SourceCorpus corpus, String strategy, Path directory) throws IOException {
+        List<Path> sourceFiles = new ArrayList<>();
+        for (Map.Entry<String, String> source : corpus.getSources().entrySet()) {
+            Path file = directory.resolve("src").resolve(source.getKey().replace('.', '/') + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, source.getValue().getBytes(StandardCharsets.UTF_8));
+            sourceFiles.add(file);
+        }
+        Path output = Files.createDirectories(directory.resolve("classes"));
+        List<String> options = new ArrayList<>(Arrays.asList(
+            "-d", output.toString(),
+            "-classpath", System.getProperty("java.class.path"),
+            "-encoding", "UTF-8"
+        ));
+        if (strategy != null) {
+            Path configuration = directory.resolve("dgen.config");
+            Files.write(configuration, corpus.getConfiguration(strategy).getBytes(StandardCharsets.UTF_8));
+            options.add("-Adgen.config=" + configuration);
+        } else {
+            options.add("-proc:none");
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager =
+            compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8))
+        {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                fileManager.getJavaFileObjectsFromFiles(
+                    sourceFiles.stream().map(Path::toFile).collect(Collectors.toList())));
+            task.setProcessors(strategy != null ?
+                Collections.singletonList(new DgenProcessor()) : Collections.emptyList());
+            if (!task.call()) {
+                throw new IllegalStateException("Compilation of corpus failed: " +
+                    diagnostics.getDiagnostics().stream()
+                        .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                        .map(d -> d.getMessage(Locale.ROOT))
+                        .collect(Collectors.toList()));
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Returns JSON members with class-file statistics and median metaspace use and load time of compiled classes.
+     */
+    static String measure(Path classes, int warmup, int iterations) throws Exception {
+        List<String> classNames = new ArrayList<>();
+        long classFileBytes = 0;
+        long constantPoolEntries = 0;
+        try (Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".class")).sorted()
+                .collect(Collectors.toList()))
+            {
+                String name = classes.relativize(file).toString().replace('\\', '/');
+                classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                classFileBytes += Files.size(file);
+                constantPoolEntries += constantPoolEntries(file);
+            }
+        }
+
+        MemoryPoolMXBean metaspace = metaspacePool();
+        for (int i = 0; i < warmup; i++) {
+            load(classes, classNames).close();
+        }
+        long[] loadNanos = new long[iterations];
+        long[] metaspaceBytes = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            System.gc(); // unload classes of previous iterations
+            long used = metaspace != null ? metaspace.getUsage().getUsed() : 0;
+            long time = System.nanoTime();
+            try (URLClassLoader loader = load(classes, classNames)) {
+                loadNanos[i] = System.nanoTime() - time;
+                metaspaceBytes[i] = metaspace != null ? metaspace.getUsage().getUsed() - used : -1;
+            }
+        }
+        return String.format(Locale.ROOT, "\"classFiles\": %d, \"classFileBytes\": %d, " +
+            "\"constantPoolEntries\": %d, \"metaspaceBytes\": %d, \"loadMillis\": %.3f",
+            classNames.size(), classFileBytes, constantPoolEntries, median(metaspaceBytes), median(loadNanos) / 1e6);
+    }
+
+    /**
+     * Loads and links all specified classes in a new class loader.
+     */
+    private static URLClassLoader load(Path classes, List<String> classNames) throws Exception {
+        URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()},
+            FootprintBenchmark.class.getClassLoader());
+        for (String className : classNames) {
+            Class.forName(className, true, loader);
+        }
+        return loader;
+    }
+
+    private static int constantPoolEntries(Path classFile) throws IOException {
+        try (InputStream in = Files.newInputStream(classFile)) {
+            DataInputStream data = new DataInputStream(in);
+            data.readInt(); // magic
+            data.readUnsignedShort(); // minor version
+            data.readUnsignedShort(); // major version
+            return data.readUnsignedShort() - 1; // constant_pool_count
+        }
+    }
+
+    private static MemoryPoolMXBean metaspacePool() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getName().equals("Metaspace"))
+                return pool;
+        }
+        return null;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.devexperts.dgen.ParsedComment;
+import com.sun.source.doctree.DocCommentTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of Javadoc comments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParsedCommentBenchmark {
+
+    static final String SOURCE =
+        "package sample;\n" +
+        "public class Comments {\n" +
+        "    /** Connects to the server. */\n" +
+        "    public void shortComment() {}\n" +
+        "    /**\n" +
+        "     * Connects to the server using configured address and waits until the connection is established.\n" +
+        "     * Connection attempts are repeated with exponential backoff until the timeout expires.\n" +
+        "     * <p>\n" +
+        "     * The address may contain several hosts separated by commas, in this case the first\n" +
+        "     * available host is used. Each host may specify its own port, otherwise the default port\n" +
+        "     * from {@link java.net.InetSocketAddress} is used. The method is safe to call concurrently:\n" +
+        "     * only one connection is established and other callers wait for its completion.\n" +
+        "     * <p>\n" +
+        "     * Connection state changes are reported to registered listeners in the order they happen.\n" +
+        "     */\n" +
+        "    public void longComment() {}\n" +
+        "    /**\n" +
+        "     * Connects to the server.\n" +
+        "     * @param address server address.\n" +
+        "     * @param port server port.\n" +
+        "     * @param timeout connection timeout in milliseconds.\n" +
+        "     * @param retries number of retries.\n" +
+        "     * @return {@code true} if connected.\n" +
+        "     * @throws IllegalStateException if already connected.\n" +
+        "     * @see java.net.Socket\n" +
+        "     * @since 1.2\n" +
+        "     * @dgen.annotate method {}\n" +
+        "     */\n" +
+        "    public boolean tagComment(String address, int port, long timeout, int retries) { return true; }\n" +
+        "}\n";
+
+    /**
+     * Name of the method with the comment: short, long or with many block tags.
+     */
+    @Param({"shortComment", "longComment", "tagComment"})
+    public String comment;
+
+    private DocCommentTree docComment;
+
+    @Setup
+    public void setup() throws IOException {
+        CompiledSource source = new CompiledSource("sample.Comments", SOURCE);
+        docComment = source.getComment(source.getMethod(comment));
+    }
+
+    @Benchmark
+    public ParsedComment createFromDocComment() {
+        return ParsedComment.createFromDocComment(docComment);
+    }
+}
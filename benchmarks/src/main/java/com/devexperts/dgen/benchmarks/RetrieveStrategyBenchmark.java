@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.devexperts.dgen.ParsedComment;
+import com.devexperts.dgen.configuration.DescriptionRetrieveStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retrieval of description from parsed comment by each {@link DescriptionRetrieveStrategy}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RetrieveStrategyBenchmark {
+
+    @Param({"FIRST_SENTENCE", "FIRST_PARAGRAPH", "RETURN_TAG_VALUE", "ALL"})
+    public DescriptionRetrieveStrategy strategy;
+
+    private ParsedComment comment;
+
+    @Setup
+    public void setup() throws IOException {
+        CompiledSource source = new CompiledSource("sample.Comments", ParsedCommentBenchmark.SOURCE);
+        comment = ParsedComment.createFromDocComment(source.getComment(source.getMethod("tagComment")));
+    }
+
+    @Benchmark
+    public String retrieveDescription() {
+        return strategy.retrieveDescription(comment);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import com.devexperts.dgen.configuration.ClassRule;
+import com.devexperts.dgen.configuration.Configuration;
+import com.devexperts.dgen.configuration.ConfigurationReader;
+import com.devexperts.dgen.configuration.MethodRule;
+import com.sun.tools.javac.tree.JCTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching of class and method declarations against configuration rules.
+ * Only the last rule matches, so every rule is evaluated.
+ * <p>
+ * Compilation of predicates to trees of method handles was measured with this benchmark and dropped:
+ * on HotSpot 17 it was faster with 10 rules, but 5-10 times slower than the interpreter with 1000 rules,
+ * since invocations of handles which aren't constants are not inlined.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleMatchingBenchmark {
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "public class Target implements Runnable {\n" +
+        "    public void run() {}\n" +
+        "}\n";
+
+    /**
+     * Number of class rules in configuration and of method rules in the class rule.
+     */
+    @Param({"10", "100", "1000"})
+    public int rules;
+
+    private Configuration configuration;
+    private ClassRule classRule;
+    private JCTree.JCClassDecl classDecl;
+    private JCTree.JCMethodDecl methodDecl;
+
+    @Setup
+    public void setup() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i < rules; i++) {
+            builder.append("class { name = \"sample\\.Other").append(i).append("\"; access = public; }\n");
+        }
+        builder.append("class {\n    name = \"sample\\.Target\";\n");
+        for (int i = 1; i < rules; i++) {
+            builder.append("    method { name = \"other").append(i).append("\"; access = public; }\n");
+        }
+        builder.append("    method { name = \"run\"; }\n}\n");
+        configuration = ConfigurationReader.readConfiguration(builder.toString());
+
+        CompiledSource source = new CompiledSource("sample.Target", SOURCE);
+        classDecl = source.getClass("Target");
+        methodDecl = source.getMethod("run");
+        classRule = configuration.applyClass(classDecl);
+        if (classRule == null || classRule.applyMethod(methodDecl) == null)
+            throw new IllegalStateException("Last rule should match");
+    }
+
+    @Benchmark
+    public ClassRule applyClass() {
+        return configuration.applyClass(classDecl);
+    }
+
+    @Benchmark
+    public MethodRule applyMethod() {
+        return classRule.applyMethod(methodDecl);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Synthetic source corpus for end-to-end compilation benchmarks.
+ * <p>
+ * Every top-level class contains a chain of nested classes, each class has the same number of members:
+ * public fields and public methods with two documented parameters (or without parameters). A share of classes
+ * is configured with inline {@code @dgen.annotate} tags, others are matched by
+ * {@link #getConfiguration() configuration file}.
+ * Generated sources depend only on parameters, so results of different runs are comparable.
+ */
+class SourceCorpus {
+
+    private static final String PACKAGE_PREFIX = "corpus.p";
+    private static final int CLASSES_PER_PACKAGE = 50;
+
+    private final int classes;
+    private final int members;
+    private final int javadocSentences;
+    private final int nestingDepth;
+    private final double inlineTagShare;
+    private final boolean methodParameters;
+
+    /**
+     * @param classes          number of top-level classes.
+     * @param members          number of members (fields and methods) in every class.
+     * @param javadocSentences number of sentences in every Javadoc comment.
+     * @param nestingDepth     number of nested classes in every top-level class, each nested into previous one.
+     * @param inlineTagShare   share of top-level classes configured with {@code @dgen.annotate} tag, from 0 to 1.
+     */
+    SourceCorpus(int classes, int members, int javadocSentences, int nestingDepth, double inlineTagShare) {
+        this(classes, members, javadocSentences, nestingDepth, inlineTagShare, true);
+    }
+
+    /**
+     * @param methodParameters {@code true} if methods have two parameters, {@code false} if they have none.
+     * @see #SourceCorpus(int, int, int, int, double)
+     */
+    SourceCorpus(int classes, int members, int javadocSentences, int nestingDepth, double inlineTagShare,
+        boolean methodParameters)
+    {
+        if (classes < 1 || members < 0 || javadocSentences < 1 || nestingDepth < 0 ||
+            inlineTagShare < 0 || inlineTagShare > 1)
+        {
+            throw new IllegalArgumentException("Invalid corpus parameters: classes=" + classes +
+                ", members=" + members + ", javadocSentences=" + javadocSentences +
+                ", nestingDepth=" + nestingDepth + ", inlineTagShare=" + inlineTagShare);
+        }
+        this.classes = classes;
+        this.members = members;
+        this.javadocSentences = javadocSentences;
+        this.nestingDepth = nestingDepth;
+        this.inlineTagShare = inlineTagShare;
+        this.methodParameters = methodParameters;
+    }
+
+    /**
+     * Returns number of documented elements: classes, fields, methods and method parameters.
+     */
+    long getElementCount() {
+        int methods = members / 2;
+        int fields = members - methods;
+        return (long) classes * (nestingDepth + 1) * (1 + fields + methods * (methodParameters ? 3 : 1));
+    }
+
+    /**
+     * Returns configuration file matching classes without inline tags.
+     */
+    String getConfiguration() {
+        return getConfiguration(null);
+    }
+
+    /**
+     * Returns configuration file matching classes without inline tags with specified class rule
+     * {@code retrieveStrategy} option, e.g. {@code firstParagraph}, or default one if it is {@code null}.
+     */
+    String getConfiguration(String retrieveStrategy) {
+        return "class {\n" +
+            "    name = \"corpus\\..*\";\n" +
+            (retrieveStrategy != null ? "    options { retrieveStrategy = " + retrieveStrategy + "; }\n" : "") +
+            "    method { access = public; }\n" +
+            "    field { access = public; }\n" +
+            "}\n";
+    }
+
+    /**
+     * Returns map: qualified class name -&gt; source code.
+     */
+    Map<String, String> getSources() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (int i = 0; i < classes; i++) {
+            String packageName = PACKAGE_PREFIX + (i / CLASSES_PER_PACKAGE);
+            String className = "Class" + i;
+            StringBuilder source = new StringBuilder();
+            source.append("package ").append(packageName).append(";\n\n");
+            appendClass(source, className, 0, hasInlineTag(i));
+            sources.put(packageName + "." + className, source.toString());
+        }
+        return sources;
+    }
+
+    // distributes classes with inline tags evenly
+    private boolean hasInlineTag(int index) {
+        return Math.floor((index + 1) * inlineTagShare) > Math.floor(index * inlineTagShare);
+    }
+
+    private void appendClass(StringBuilder source, String className, int depth, boolean inlineTag) {
+        String indent = indent(depth);
+        appendJavadoc(source, indent, className, inlineTag ? "@dgen.annotate method { access = public; } " +
+            "field { access = public; }" : null, null);
+        source.append(indent).append("public ").append(depth > 0 ? "static " : "").append("class ")
+            .append(className).append(" {\n");
+        String memberIndent = indent(depth + 1);
+        for (int i = 0; i < members; i++) {
+            if (i % 2 == 0) {
+                String field = "field" + i;
+                appendJavadoc(source, memberIndent, field, null, null);
+                source.append(memberIndent).append("public int ").append(field).append(";\n");
+            } else {
+                String method = "method" + i;
+                appendJavadoc(source, memberIndent, method, null, method);
+                source.append(memberIndent).append("public String ").append(method)
+                    .append(methodParameters ? "(String name, long timeout) { return name; }\n" :
+                        "() { return \"name\"; }\n");
+            }
+        }
+        if (depth < nestingDepth)
+            appendClass(source, "Nested" + (depth + 1), depth + 1, false);
+        source.append(indent).append("}\n");
+    }
+
+    private void appendJavadoc(StringBuilder source, String indent, String element, String tag, String method) {
+        source.append(indent).append("/**\n");
+        for (int i = 0; i < javadocSentences; i++) {
+            source.append(indent).append(" * Sentence ").append(i).append(" describing ").append(element)
+                .append(" with {@code code} and several more words.\n");
+        }
+        if (method != null && methodParameters) {
+            source.append(indent).append(" * @param name name passed to ").append(method).append(".\n");
+            source.append(indent).append(" * @param timeout timeout in milliseconds.\n");
+        }
+        if (method != null)
+            source.append(indent).append(" * @return the name.\n");
+        if (tag != null)
+            source.append(indent).append(" * ").append(tag).append('\n');
+        source.append(indent).append(" */\n");
+    }
+
+    private static String indent(int depth) {
+        StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            indent.append("    ");
+        }
+        return indent.toString();
+    }
+
+    /**
+     * Returns corpus parameters as JSON object.
+     */
+    String toJson() {
+        return "{\"classes\": " + classes +
+            ", \"members\": " + members +
+            ", \"javadocSentences\": " + javadocSentences +
+            ", \"nestingDepth\": " + nestingDepth +
+            ", \"inlineTagShare\": " + inlineTagShare +
+            ", \"methodParameters\": " + methodParameters +
+            ", \"elements\": " + getElementCount() + "}";
+    }
+
+    @Override
+    public String toString() {
+        return "classes=" + classes + ", members=" + members + ", javadocSentences=" + javadocSentences +
+            ", nestingDepth=" + nestingDepth + ", inlineTagShare=" + inlineTagShare +
+            ", methodParameters=" + methodParameters;
+    }
+}
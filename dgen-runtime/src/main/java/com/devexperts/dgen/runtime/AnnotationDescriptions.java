@@ -0,0 +1,78 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.runtime;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Executable;
+
+/**
+ * Reads descriptions from {@link Description} and {@code com.devexperts.annotation.Description} annotations.
+ * Works without dxlib in classpath, in this case only {@link Description} is used.
+ */
+final class AnnotationDescriptions {
+
+    private static final boolean DXLIB_AVAILABLE = isDxlibAvailable();
+
+    // Utility class
+    private AnnotationDescriptions() {
+    }
+
+    static String getDescription(AnnotatedElement element) {
+        Description description = element.getAnnotation(Description.class);
+        if (description != null)
+            return description.value();
+        if (!DXLIB_AVAILABLE)
+            return null;
+        com.devexperts.annotation.Description dxlibDescription =
+            element.getAnnotation(com.devexperts.annotation.Description.class);
+        return dxlibDescription != null ? dxlibDescription.value() : null;
+    }
+
+    /**
+     * @param index              index of parameter declared in source.
+     * @param implicitParameters number of leading parameters added by compiler.
+     */
+    static String getParameterDescription(Executable executable, int index, int implicitParameters) {
+        Annotation[][] parameterAnnotations = executable.getParameterAnnotations();
+        // Java 9+ prepends empty annotations of implicit parameters, Java 8 returns declared parameters only
+        if (parameterAnnotations.length == executable.getParameterCount())
+            index += implicitParameters;
+        if (index >= parameterAnnotations.length)
+            return null;
+        for (Annotation annotation : parameterAnnotations[index]) {
+            if (annotation instanceof Description)
+                return ((Description) annotation).value();
+            if (DXLIB_AVAILABLE && annotation instanceof com.devexperts.annotation.Description)
+                return ((com.devexperts.annotation.Description) annotation).value();
+        }
+        return null;
+    }
+
+    private static boolean isDxlibAvailable() {
+        try {
+            return com.devexperts.annotation.Description.class.isAnnotation();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
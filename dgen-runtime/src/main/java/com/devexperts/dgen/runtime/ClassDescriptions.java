@@ -0,0 +1,232 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+/**
+ * All descriptions of one class.
+ * <p>
+ * Members are identified by the same keys as in generated {@code $Descriptions} companion classes:
+ * {@code [nested class key.]name} for fields, {@code [nested class key.]name(type1,type2)} for methods
+ * and {@code method key#index} for parameters. Like in sources, they don't include implicit parameters of
+ * constructors: outer instance of inner classes, name and ordinal of enums.
+ * <p>
+ * Annotation values {@code dgen:<key>} generated in sidecar mode are resolved from
+ * {@code META-INF/dgen/<top-level class>.properties} resource.
+ */
+final class ClassDescriptions {
+
+    private static final String COMPANION_SUFFIX = "$Descriptions";
+    private static final String SIDECAR_KEY_PREFIX = "dgen:";
+
+    private final String classDescription;
+    private final Map<Member, String> memberDescriptions;
+    private final Map<Executable, String[]> parameterDescriptions;
+
+    private ClassDescriptions(String classDescription, Map<Member, String> memberDescriptions,
+        Map<Executable, String[]> parameterDescriptions)
+    {
+        this.classDescription = classDescription;
+        this.memberDescriptions = memberDescriptions;
+        this.parameterDescriptions = parameterDescriptions;
+    }
+
+    String getClassDescription() {
+        return classDescription;
+    }
+
+    String getMemberDescription(Member member) {
+        return memberDescriptions.get(member);
+    }
+
+    String getParameterDescription(Executable executable, int index) {
+        String[] descriptions = parameterDescriptions.get(executable);
+        return descriptions != null && index >= 0 && index < descriptions.length ? descriptions[index] : null;
+    }
+
+    static ClassDescriptions load(Class<?> type) {
+        Class<?> topLevelClass = type;
+        StringBuilder classKey = new StringBuilder();
+        while (topLevelClass.getDeclaringClass() != null) {
+            classKey.insert(0, classKey.length() > 0 ? topLevelClass.getSimpleName() + "." :
+                topLevelClass.getSimpleName());
+            topLevelClass = topLevelClass.getDeclaringClass();
+        }
+        Loader loader = new Loader(topLevelClass);
+
+        String classDescription = loader.describe(classKey.toString(), type);
+
+        Map<Member, String> memberDescriptions = new HashMap<>();
+        Map<Executable, String[]> parameterDescriptions = new HashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            String description = loader.describe(memberKey(classKey, field.getName()), field);
+            if (description != null)
+                memberDescriptions.put(field, description);
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            loader.addExecutable(classKey, method, method.getName(), memberDescriptions, parameterDescriptions);
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            loader.addExecutable(classKey, constructor, "<init>", memberDescriptions, parameterDescriptions);
+        }
+        return new ClassDescriptions(classDescription, memberDescriptions, parameterDescriptions);
+    }
+
+    private static String memberKey(CharSequence classKey, String name) {
+        return classKey.length() == 0 ? name : classKey + "." + name;
+    }
+
+    /**
+     * Returns the number of leading parameters of constructor which are added by compiler and aren't declared
+     * in source: outer instance of inner member class, name and ordinal of enum.
+     */
+    private static int implicitParameterCount(Executable executable, Class<?>[] parameterTypes) {
+        if (!(executable instanceof Constructor))
+            return 0;
+        Class<?> type = executable.getDeclaringClass();
+        if (type.isEnum())
+            return parameterTypes.length >= 2 && parameterTypes[0] == String.class && parameterTypes[1] == int.class ?
+                2 : 0;
+        if (type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))
+            return parameterTypes.length >= 1 && parameterTypes[0] == type.getEnclosingClass() ? 1 : 0;
+        return 0;
+    }
+
+    private static String typeName(Class<?> type) {
+        if (type.isArray())
+            return typeName(type.getComponentType()) + "[]";
+        String canonicalName = type.getCanonicalName();
+        return canonicalName != null ? canonicalName : type.getName();
+    }
+
+    /**
+     * Resolves descriptions of classes nested into one top-level class.
+     */
+    private static class Loader {
+        private final Class<?> topLevelClass;
+        private final Method companion;
+        private Properties sidecar; // lazily loaded
+
+        Loader(Class<?> topLevelClass) {
+            this.topLevelClass = topLevelClass;
+            this.companion = findCompanion(topLevelClass);
+        }
+
+        void addExecutable(CharSequence classKey, Executable executable, String name,
+            Map<Member, String> memberDescriptions, Map<Executable, String[]> parameterDescriptions)
+        {
+            Class<?>[] parameterTypes = executable.getParameterTypes();
+            int implicitParameters = implicitParameterCount(executable, parameterTypes);
+            StringJoiner joiner = new StringJoiner(",", name + "(", ")");
+            for (int i = implicitParameters; i < parameterTypes.length; i++) {
+                joiner.add(typeName(parameterTypes[i]));
+            }
+            String key = memberKey(classKey, joiner.toString());
+
+            String description = describe(key, executable);
+            if (description != null)
+                memberDescriptions.put(executable, description);
+
+            int parameterCount = parameterTypes.length - implicitParameters;
+            if (parameterCount == 0)
+                return;
+            String[] descriptions = new String[parameterCount];
+            boolean described = false;
+            for (int i = 0; i < parameterCount; i++) {
+                descriptions[i] = describeByCompanion(key + "#" + i);
+                if (descriptions[i] == null)
+                    descriptions[i] = resolve(
+                        AnnotationDescriptions.getParameterDescription(executable, i, implicitParameters));
+                described |= descriptions[i] != null;
+            }
+            if (described)
+                parameterDescriptions.put(executable, descriptions);
+        }
+
+        String describe(String key, AnnotatedElement element) {
+            String description = describeByCompanion(key);
+            return description != null ? description : resolve(AnnotationDescriptions.getDescription(element));
+        }
+
+        private String describeByCompanion(String key) {
+            if (companion == null)
+                return null;
+            try {
+                return (String) companion.invoke(null, key);
+            } catch (ReflectiveOperationException e) {
+                return null; // fall back to annotations
+            }
+        }
+
+        /**
+         * Resolves {@code dgen:<key>} annotation values generated in sidecar mode.
+         */
+        private String resolve(String annotationValue) {
+            if (annotationValue == null || !annotationValue.startsWith(SIDECAR_KEY_PREFIX))
+                return annotationValue;
+            if (sidecar == null)
+                sidecar = loadSidecar(topLevelClass);
+            return sidecar.getProperty(annotationValue.substring(SIDECAR_KEY_PREFIX.length()), annotationValue);
+        }
+    }
+
+    private static Method findCompanion(Class<?> topLevelClass) {
+        ClassLoader loader = topLevelClass.getClassLoader();
+        if (loader == null)
+            return null;
+        try {
+            Class<?> companionClass = Class.forName(topLevelClass.getName() + COMPANION_SUFFIX, false, loader);
+            Method describe = companionClass.getMethod("describe", String.class);
+            describe.setAccessible(true);
+            return describe;
+        } catch (ClassNotFoundException | NoSuchMethodException | LinkageError | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static Properties loadSidecar(Class<?> topLevelClass) {
+        Properties properties = new Properties();
+        ClassLoader loader = topLevelClass.getClassLoader();
+        if (loader == null)
+            return properties;
+        try (InputStream in = loader.getResourceAsStream("META-INF/dgen/" + topLevelClass.getName() + ".properties")) {
+            if (in != null)
+                properties.load(in);
+        } catch (IOException ignore) {
+            // leave references unresolved
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.runtime;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import javax.annotation.Nullable;
+
+/**
+ * Runtime lookup of descriptions generated by dgen.
+ * <p>
+ * Descriptions are taken from generated {@code $Descriptions} companion classes when they exist,
+ * otherwise from {@link Description} or {@code com.devexperts.annotation.Description} annotations.
+ * All descriptions of a class are resolved on the first lookup and cached in {@link ClassValue},
+ * so repeated lookups don't allocate and don't prevent class loaders from being collected.
+ */
+public final class Descriptions {
+
+    private static final ClassValue<ClassDescriptions> CACHE = new ClassValue<ClassDescriptions>() {
+        @Override
+        protected ClassDescriptions computeValue(Class<?> type) {
+            return ClassDescriptions.load(type);
+        }
+    };
+
+    // Utility class
+    private Descriptions() {
+    }
+
+    /**
+     * @return description of specified class or {@code null} if class isn't described.
+     */
+    @Nullable
+    public static String getDescription(Class<?> clazz) {
+        return CACHE.get(clazz).getClassDescription();
+    }
+
+    /**
+     * @return description of specified method or {@code null} if method isn't described.
+     */
+    @Nullable
+    public static String getDescription(Method method) {
+        return CACHE.get(method.getDeclaringClass()).getMemberDescription(method);
+    }
+
+    /**
+     * @return description of specified constructor or {@code null} if constructor isn't described.
+     */
+    @Nullable
+    public static String getDescription(Constructor<?> constructor) {
+        return CACHE.get(constructor.getDeclaringClass()).getMemberDescription(constructor);
+    }
+
+    /**
+     * @return description of specified field or {@code null} if field isn't described.
+     */
+    @Nullable
+    public static String getDescription(Field field) {
+        return CACHE.get(field.getDeclaringClass()).getMemberDescription(field);
+    }
+
+    /**
+     * @param executable method or constructor.
+     * @param index      index of parameter declared in source, implicit outer instance of inner class constructor
+     *                   and name and ordinal of enum constructor aren't counted.
+     * @return description of specified parameter or {@code null} if parameter isn't described.
+     */
+    @Nullable
+    public static String getParameterDescription(Executable executable, int index) {
+        return CACHE.get(executable.getDeclaringClass()).getParameterDescription(executable, index);
+    }
+}
@@ -12,26 +12,37 @@ methodRule: METHOD LBRACK (predicate | methodRuleOptions)* RBRACK;
 fieldRule: FIELD LBRACK (predicate | fieldRuleOptions)* RBRACK;
 
 // Options
-classRuleOptions: OPTIONS LBRACK (descriptionRetrieveStrategy | annotateClass)* RBRACK;
-methodRuleOptions: OPTIONS LBRACK descriptionRetrieveStrategy* RBRACK;
-fieldRuleOptions: OPTIONS LBRACK descriptionRetrieveStrategy* RBRACK;
+classRuleOptions: OPTIONS LBRACK (descriptionRetrieveStrategy | annotateClass | exclude | normalize | maxLength)* RBRACK;
+methodRuleOptions: OPTIONS LBRACK (descriptionRetrieveStrategy | normalize | maxLength)* RBRACK;
+fieldRuleOptions: OPTIONS LBRACK (descriptionRetrieveStrategy | normalize | maxLength)* RBRACK;
 
 descriptionRetrieveStrategy: DESCRIPTION_RETRIEVE_STRATEGY ASSIGN
     (firstSentenceStrategy | firstParagraphStrategy | returnTagStrategy | allStrategy) END;
 firstSentenceStrategy: FIRST_SENTENCE_STRATEGY;
 firstParagraphStrategy: FIRST_PARAGRAPH_STRATEGY;
 returnTagStrategy: RETURN_TAG_STRATEGY;
-allStrategy: ALL_STRATEGY;
+allStrategy: ALL;
 
 annotateClass: ANNOTATE_CLASS ASSIGN (TRUE | FALSE) END;
+exclude: EXCLUDE ASSIGN (TRUE | FALSE) END;
+normalize: NORMALIZE ASSIGN (TRUE | FALSE) END;
+maxLength: MAX_LENGTH ASSIGN NUMBER END;
 
 // Predicates
-predicate: namePredicate | isStaticPredicate | accessModifierPredicate | extendsOrImplementsPredicate;
+predicate: namePredicate | isStaticPredicate | accessModifierPredicate | extendsOrImplementsPredicate |
+    hasAnnotationPredicate | notPredicate | anyPredicate | allPredicate;
+
+// not { ... } negates conjunction of predicates in the block
+notPredicate: NOT (predicate | LBRACK predicate* RBRACK);
+anyPredicate: ANY LBRACK predicate* RBRACK;
+allPredicate: ALL LBRACK predicate* RBRACK;
 
 namePredicate: NAME_PREDICATE ASSIGN name END;
 
 extendsOrImplementsPredicate: EXTENDS_OR_IMPLEMENTS_PREDICATE ASSIGN name END;
 
+hasAnnotationPredicate: HAS_ANNOTATION_PREDICATE (ASSIGN | NOT_ASSIGN) name END;
+
 isStaticPredicate: IS_STATIC_PREDICATE ASSIGN (TRUE | FALSE) END;
 
 accessModifierPredicate: ACCESS_MODIFIER_PREDICATE ASSIGN accessModifierValue (OR accessModifierValue)* END;
@@ -41,6 +52,7 @@ name: STRING;
 
 // Operators
 ASSIGN: '=';
+NOT_ASSIGN: '!=';
 
 // Keywords
 CLASS: 'class';
@@ -52,13 +64,20 @@ DESCRIPTION_RETRIEVE_STRATEGY: 'retrieveStrategy';
 FIRST_SENTENCE_STRATEGY: 'firstSentence';
 FIRST_PARAGRAPH_STRATEGY: 'firstParagraph';
 RETURN_TAG_STRATEGY: 'returnTag';
-ALL_STRATEGY: 'all';
+ALL: 'all';
 
 ANNOTATE_CLASS: 'annotateClass';
+EXCLUDE: 'exclude';
+NORMALIZE: 'normalize';
+MAX_LENGTH: 'maxLength';
 
 NAME_PREDICATE: 'name';
 EXTENDS_OR_IMPLEMENTS_PREDICATE: 'extendsOrImplements';
 IS_STATIC_PREDICATE: 'isStatic';
+HAS_ANNOTATION_PREDICATE: 'hasAnnotation';
+
+NOT: 'not';
+ANY: 'any';
 ACCESS_MODIFIER_PREDICATE: 'access';
 
 PRIVATE: 'private';
@@ -68,6 +87,7 @@ PUBLIC: 'public';
 
 // Constants
 STRING: '"' ( ~'"' | '\\' '"' )* '"';
+NUMBER: [0-9]+;
 TRUE: 'true';
 FALSE: 'false';
 
@@ -0,0 +1,277 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.TreeMaker;
+import com.sun.tools.javac.util.List;
+import com.sun.tools.javac.util.Names;
+
+import java.io.IOException;
+import java.util.Collections;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+
+import static javax.tools.Diagnostic.Kind.WARNING;
+
+/**
+ * Injects description annotations into described declarations and collects their descriptions for companion class,
+ * sidecar resource and native-image configuration of the top-level class.
+ * <p>
+ * Declarations which already have description annotation are left as is.
+ */
+class AnnotationInjectionSink implements DescriptionSink {
+
+    private final TreeMaker treeMaker;
+    private final Names names;
+    private final DescriptionAnnotation descriptionAnnotation;
+    private final boolean generateCompanions;
+    // "<group>/<artifact>" for native-image configuration or null if it shouldn't be generated
+    private final String nativeImageConfigPath;
+    private final boolean generateSidecars;
+    private ProcessingEnvironment processingEnv;
+
+    // collect generated descriptions of the current top-level class, null if they are not generated
+    private CompanionClassWriter companion;
+    private NativeImageConfigWriter nativeImageConfig;
+    private SidecarResourceWriter sidecar;
+
+    AnnotationInjectionSink(TreeMaker treeMaker, Names names, DescriptionAnnotation descriptionAnnotation,
+        boolean generateCompanions, String nativeImageConfigPath, boolean generateSidecars)
+    {
+        this.treeMaker = treeMaker;
+        this.names = names;
+        this.descriptionAnnotation = descriptionAnnotation;
+        this.generateCompanions = generateCompanions;
+        this.nativeImageConfigPath = nativeImageConfigPath;
+        this.generateSidecars = generateSidecars;
+    }
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    @Override
+    public void startClass(TypeElement topLevelClass) {
+        companion = generateCompanions ? new CompanionClassWriter() : null;
+        nativeImageConfig = nativeImageConfigPath != null ? new NativeImageConfigWriter() : null;
+        sidecar = generateSidecars ? new SidecarResourceWriter() : null;
+    }
+
+    @Override
+    public void describe(DescribedElement element) {
+        JCTree tree = element.getTree();
+        if (tree instanceof JCTree.JCClassDecl) {
+            describeClass(element, (JCTree.JCClassDecl) tree);
+        } else if (tree instanceof JCTree.JCMethodDecl) {
+            describeMethod(element, (JCTree.JCMethodDecl) tree);
+        } else if (tree instanceof JCTree.JCVariableDecl) {
+            describeField(element, (JCTree.JCVariableDecl) tree);
+        }
+    }
+
+    private void describeClass(DescribedElement element, JCTree.JCClassDecl classDecl) {
+        if (containsDescriptionAnnotation(classDecl.getModifiers()))
+            return;
+        ProcessorPhase injection = ProcessorEvents.annotationInjection().className(element.getClassName());
+        appendDescriptionAnnotation(classDecl.mods, record(element.getClassKey(), element.getDescription()));
+        if (nativeImageConfig != null)
+            nativeImageConfig.addClass(element.getClassName());
+        injection.memberCount(1).finish();
+    }
+
+    private void describeMethod(DescribedElement element, JCTree.JCMethodDecl methodDecl) {
+        // class members have keys
+        String classKey = element.getClassKey();
+        String methodKey = (companion != null || sidecar != null) && classKey != null && methodDecl.sym != null ?
+            ElementKeys.methodKey(classKey, methodDecl.getName().toString(),
+                methodDecl.sym.type.getParameterTypes(), processingEnv.getTypeUtils()) :
+            null;
+
+        ProcessorPhase injection = ProcessorEvents.annotationInjection().className(element.getClassName())
+            .member(methodDecl.getName());
+        int annotations = 0;
+        // add description to method
+        boolean annotated = false;
+        String methodDescription = element.getDescription();
+        if (methodDescription != null && !containsDescriptionAnnotation(methodDecl.getModifiers())) {
+            appendDescriptionAnnotation(methodDecl.mods, record(methodKey, methodDescription));
+            annotated = true;
+            annotations++;
+        }
+
+        // add description to params
+        for (int i = 0; i < methodDecl.params.size(); i++) {
+            JCTree.JCVariableDecl param = methodDecl.params.get(i);
+            if (containsDescriptionAnnotation(param.getModifiers()))
+                continue;
+            String paramDescription = element.getParameterDescriptions().get(i);
+            param.mods = appendDescriptionAnnotation(
+                    param.mods, param.getName().toString(),
+                    paramDescription != null && methodKey != null ?
+                        record(ElementKeys.parameterKey(methodKey, i), paramDescription) :
+                        paramDescription != null ? paramDescription : ""
+            );
+            annotated = true;
+            annotations++;
+        }
+
+        if (annotated && nativeImageConfig != null && classKey != null && methodDecl.sym != null) {
+            nativeImageConfig.addMethod(element.getClassName(), methodDecl.getName().toString(),
+                methodDecl.sym.type.getParameterTypes(),
+                processingEnv.getTypeUtils(), processingEnv.getElementUtils());
+        }
+        injection.memberCount(annotations).finish();
+    }
+
+    private void describeField(DescribedElement element, JCTree.JCVariableDecl varDecl) {
+        if (containsDescriptionAnnotation(varDecl.getModifiers()))
+            return;
+        ProcessorPhase injection = ProcessorEvents.annotationInjection().className(element.getClassName())
+            .member(varDecl.getName());
+        String key = element.getClassKey() != null ?
+            ElementKeys.memberKey(element.getClassKey(), varDecl.getName().toString()) : null;
+        appendDescriptionAnnotation(varDecl.mods, record(key, element.getDescription()));
+        if (element.getClassKey() != null && nativeImageConfig != null)
+            nativeImageConfig.addField(element.getClassName(), varDecl.getName().toString());
+        injection.memberCount(1).finish();
+    }
+
+    @Override
+    public void endClass(TypeElement topLevelClass) throws IOException {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(topLevelClass).toString();
+        if (sidecar != null && !sidecar.isEmpty()) {
+            sidecar.write(processingEnv.getFiler(), processingEnv.getElementUtils(), topLevelClass);
+            if (nativeImageConfig != null) {
+                nativeImageConfig.addResource(SidecarResourceWriter.resourcePath(binaryName));
+            }
+        }
+        if (companion != null && !companion.isEmpty() && writeCompanion(companion, topLevelClass)) {
+            if (nativeImageConfig != null) {
+                String companionName = binaryName + CompanionClassWriter.COMPANION_SUFFIX;
+                nativeImageConfig.addMethod(companionName, "describe", Collections.singletonList(
+                    processingEnv.getElementUtils().getTypeElement(String.class.getName()).asType()),
+                    processingEnv.getTypeUtils(), processingEnv.getElementUtils());
+            }
+        }
+        if (nativeImageConfig != null && !nativeImageConfig.isEmpty()) {
+            nativeImageConfig.write(processingEnv.getFiler(), nativeImageConfigPath, topLevelClass);
+        }
+        companion = null;
+        nativeImageConfig = null;
+        sidecar = null;
+    }
+
+    private boolean writeCompanion(CompanionClassWriter companion, TypeElement topLevelClass) throws IOException {
+        for (Element member : topLevelClass.getEnclosedElements()) {
+            if (member.getKind().isClass() || member.getKind().isInterface()) {
+                if (member.getSimpleName().contentEquals("Descriptions")) {
+                    processingEnv.getMessager().printMessage(WARNING,
+                        "Descriptions companion is not generated because of nested class with the same name",
+                        topLevelClass);
+                    return false;
+                }
+            }
+        }
+        companion.write(processingEnv.getFiler(), processingEnv.getElementUtils(), topLevelClass);
+        return true;
+    }
+
+    /**
+     * Records generated description of element with specified key (may be {@code null} if element has no key).
+     *
+     * @return annotation value for description.
+     */
+    private String record(String key, String description) {
+        if (key == null)
+            return description;
+        if (companion != null)
+            companion.add(key, description);
+        return sidecar != null ? sidecar.add(key, description) : description;
+    }
+
+    private boolean containsDescriptionAnnotation(JCTree.JCModifiers modifiers) {
+        for (JCTree.JCAnnotation annotation : modifiers.getAnnotations()) {
+            if (annotation.type.tsym.getQualifiedName().contentEquals(descriptionAnnotation.getQualifiedName()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Appends description annotation to specified modifiers.
+     */
+    private JCTree.JCModifiers appendDescriptionAnnotation(JCTree.JCModifiers current, String name,
+        String description)
+    {
+        List<JCTree.JCExpression> arguments = List.of(treeMaker.Assign(
+            treeMaker.Ident(names.fromString(descriptionAnnotation.getValueMember())),
+            treeMaker.Literal(description)
+        ));
+        if (descriptionAnnotation.getNameMember() != null) {
+            arguments = arguments.prepend(treeMaker.Assign(
+                treeMaker.Ident(names.fromString(descriptionAnnotation.getNameMember())),
+                treeMaker.Literal(name)
+            ));
+        }
+
+        JCTree.JCAnnotation annotation = treeMaker.Annotation(
+            createExpression(descriptionAnnotation.getQualifiedName()),
+            arguments
+        );
+
+        List<JCTree.JCAnnotation> annotations = current.getAnnotations().append(annotation);
+        return treeMaker.Modifiers(current.flags, annotations);
+    }
+
+    /**
+     * Appends description annotation to specified modifiers.
+     */
+    private void appendDescriptionAnnotation(JCTree.JCModifiers current, String description) {
+        String valueMember = descriptionAnnotation.getValueMember();
+        List<JCTree.JCExpression> arguments = List.of(valueMember.equals("value") ?
+            treeMaker.Literal(description) :
+            treeMaker.Assign(treeMaker.Ident(names.fromString(valueMember)), treeMaker.Literal(description))
+        );
+        JCTree.JCAnnotation annotation = treeMaker.Annotation(
+            createExpression(descriptionAnnotation.getQualifiedName()),
+            arguments
+        );
+
+        current.annotations = current.getAnnotations().append(annotation);
+    }
+
+    /**
+     * Creates {@link com.sun.tools.javac.tree.JCTree.JCExpression} from {@code qualified name}.
+     */
+    private JCTree.JCExpression createExpression(String qualifiedName) {
+        String[] expressionParts = qualifiedName.split("\\.");
+
+        JCTree.JCExpression expression = treeMaker.Ident(names.fromString(expressionParts[0]));
+        for (int i = 1; i < expressionParts.length; i++) {
+            expression = treeMaker.Select(expression, names.fromString(expressionParts[i]));
+        }
+        return expression;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Writes JSON Lines report of generated descriptions: a line per described element and per top-level class
+ * while they are processed, and a summary line when the report is closed.
+ * <p>
+ * Lines are written through a buffer as soon as they are known and only totals and the slowest classes
+ * are kept, so memory use doesn't depend on the size of the compilation.
+ */
+class BuildReportWriter implements Closeable {
+
+    private static final int SLOWEST_UNITS = 10;
+    private static final Comparator<UnitTime> BY_NANOS = Comparator.comparingLong((UnitTime unit) -> unit.nanos);
+
+    private final BufferedWriter writer;
+    // the first write error, next lines are not written
+    private IOException error;
+
+    private long classes;
+    private long elements;
+    private long bytes;
+    private long nanos;
+    // the fastest of the slowest units is the head
+    private final PriorityQueue<UnitTime> slowestUnits = new PriorityQueue<>(BY_NANOS);
+
+    BuildReportWriter(Path file) throws IOException {
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes line of described element.
+     *
+     * @param kind      {@code class}, {@code method} or {@code field}.
+     * @param signature binary name of class, followed by member name and parameter types for members.
+     * @param rule      {@code config:<line>} for rules of configuration file, {@code javadoc} for rules
+     *                  of {@code @dgen.annotate} tags or {@code cache} for descriptions reused from cache.
+     * @param strategy  retrieve strategy or {@code null} if it isn't known.
+     * @param length    length of description with descriptions of parameters in characters.
+     * @param nanos     time spent on Javadoc parsing, rule matching and extraction of description.
+     */
+    void element(String kind, String signature, String rule, Object strategy, int length, long nanos) {
+        elements++;
+        write("{\"type\":\"" + kind + "\",\"signature\":" + quote(signature) + ",\"rule\":" + quote(rule) +
+            ",\"strategy\":" + (strategy != null ? quote(strategy.toString()) : "null") +
+            ",\"length\":" + length + ",\"nanos\":" + nanos + "}\n");
+    }
+
+    /**
+     * Writes line of processed top-level class.
+     *
+     * @param className binary name of class.
+     * @param elements  number of described elements of class including nested ones.
+     * @param bytes     size of added descriptions in UTF-8.
+     * @param nanos     time spent on processing of class.
+     */
+    void unit(String className, int elements, long bytes, long nanos) {
+        classes++;
+        this.bytes += bytes;
+        this.nanos += nanos;
+        slowestUnits.add(new UnitTime(className, nanos));
+        if (slowestUnits.size() > SLOWEST_UNITS)
+            slowestUnits.poll();
+        write("{\"type\":\"unit\",\"class\":" + quote(className) + ",\"elements\":" + elements +
+            ",\"bytes\":" + bytes + ",\"nanos\":" + nanos + "}\n");
+    }
+
+    /**
+     * Writes summary line and closes the report.
+     *
+     * @throws IOException if any line could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        List<UnitTime> slowest = new ArrayList<>(slowestUnits);
+        slowest.sort(BY_NANOS.reversed());
+        StringBuilder summary = new StringBuilder();
+        summary.append("{\"type\":\"summary\",\"classes\":").append(classes)
+            .append(",\"elements\":").append(elements)
+            .append(",\"bytes\":").append(bytes)
+            .append(",\"bytesPerClass\":").append(classes > 0 ? bytes / classes : 0)
+            .append(",\"nanos\":").append(nanos)
+            .append(",\"slowestUnits\":[");
+        for (int i = 0; i < slowest.size(); i++) {
+            summary.append(i > 0 ? "," : "").append("{\"class\":").append(quote(slowest.get(i).className))
+                .append(",\"nanos\":").append(slowest.get(i).nanos).append("}");
+        }
+        summary.append("]}\n");
+        write(summary.toString());
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if (error == null)
+                error = e;
+        }
+        if (error != null)
+            throw error;
+    }
+
+    private void write(String line) {
+        if (error != null)
+            return;
+        try {
+            writer.write(line);
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    private static String quote(String value) {
+        StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < ' ') {
+                result.append(String.format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    private static class UnitTime {
+        final String className;
+        final long nanos;
+
+        UnitTime(String className, long nanos) {
+            this.className = className;
+            this.nanos = nanos;
+        }
+    }
+}
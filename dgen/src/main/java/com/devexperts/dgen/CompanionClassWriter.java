@@ -0,0 +1,160 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Collects generated descriptions of one top-level class and writes its {@code <Class>$Descriptions} companion.
+ * <p>
+ * Companion contains description constants and {@code describe(String)} method, which returns description
+ * by {@link ElementKeys element key} or {@code null} if element isn't described.
+ * It allows reading descriptions without reflection.
+ */
+class CompanionClassWriter {
+
+    static final String COMPANION_SUFFIX = "$Descriptions";
+
+    private final Map<String, String> descriptions = new LinkedHashMap<>();
+
+    /**
+     * Adds description for element with specified {@link ElementKeys key}.
+     * The first added description for the same key wins.
+     */
+    void add(String key, String description) {
+        descriptions.putIfAbsent(key, description);
+    }
+
+    boolean isEmpty() {
+        return descriptions.isEmpty();
+    }
+
+    /**
+     * Writes companion source for specified top-level class.
+     */
+    void write(Filer filer, Elements elements, TypeElement topLevelClass) throws IOException {
+        PackageElement packageElement = elements.getPackageOf(topLevelClass);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String className = topLevelClass.getSimpleName() + COMPANION_SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+
+        Map<String, String> constantNames = new LinkedHashMap<>();
+        Set<String> usedNames = new HashSet<>();
+        for (String key : descriptions.keySet()) {
+            String name = constantName(key);
+            String uniqueName = name;
+            for (int i = 2; !usedNames.add(uniqueName); i++) {
+                uniqueName = name + "_" + i;
+            }
+            constantNames.put(key, uniqueName);
+        }
+
+        try (Writer writer = filer.createSourceFile(qualifiedName, topLevelClass).openWriter()) {
+            if (!packageName.isEmpty())
+                writer.write("package " + packageName + ";\n\n");
+            writer.write("// Generated by dgen from Javadoc of " + topLevelClass.getQualifiedName() + "\n");
+            writer.write("public final class " + className + " {\n\n");
+            for (Map.Entry<String, String> entry : descriptions.entrySet()) {
+                writer.write("    public static final String " + constantNames.get(entry.getKey()) + " = " +
+                    literal(entry.getValue()) + ";\n");
+            }
+            writer.write("\n    private " + className + "() {\n    }\n\n");
+            writer.write("    public static String describe(String element) {\n");
+            writer.write("        switch (element) {\n");
+            for (Map.Entry<String, String> entry : constantNames.entrySet()) {
+                writer.write("        case " + literal(entry.getKey()) + ":\n");
+                writer.write("            return " + entry.getValue() + ";\n");
+            }
+            writer.write("        default:\n");
+            writer.write("            return null;\n");
+            writer.write("        }\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        }
+    }
+
+    /**
+     * Returns constant name for specified key, e.g. {@code CLASS}, {@code INNER_X} or {@code F_INT_INT_0}.
+     */
+    private static String constantName(String key) {
+        if (key.isEmpty())
+            return "CLASS";
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isJavaIdentifierPart(c) && c != '$' && c < 128) {
+                builder.append(c);
+            } else if (builder.length() > 0 && builder.charAt(builder.length() - 1) != '_') {
+                builder.append('_');
+            }
+        }
+        if (builder.length() > 0 && builder.charAt(builder.length() - 1) == '_')
+            builder.setLength(builder.length() - 1);
+        String name = builder.toString().toUpperCase(Locale.ROOT);
+        return name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) || name.equals("CLASS") ?
+            "_" + name : name;
+    }
+
+    /**
+     * Returns Java string literal for specified value, non-ASCII characters are escaped.
+     */
+    static String literal(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e) {
+                    builder.append(String.format("\\u%04x", (int) c));
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
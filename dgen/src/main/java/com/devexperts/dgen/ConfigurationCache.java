@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import com.devexperts.dgen.configuration.ClassRule;
+import com.devexperts.dgen.configuration.Configuration;
+import com.devexperts.dgen.configuration.ConfigurationReader;
+import com.devexperts.dgen.configuration.FieldRule;
+import com.devexperts.dgen.configuration.MethodRule;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Parsed configuration and {@code @dgen.annotate} rules shared by all compilations in the JVM.
+ * <p>
+ * Long-living compilers (persistent workers, build daemons, parallel builds) run many compilations
+ * in one JVM, so unchanged configuration and rules are parsed only once.
+ * Cached objects are immutable and can be used concurrently.
+ */
+@ThreadSafe
+final class ConfigurationCache {
+
+    // caches are cleared when they reach the size limit to bound memory of long-living JVM
+    private static final int MAX_CONFIGURATIONS = 16;
+    private static final int MAX_RULES = 10_000;
+
+    private static final ConcurrentMap<String, Configuration> CONFIGURATIONS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ClassRule> CLASS_RULES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, MethodRule> METHOD_RULES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, FieldRule> FIELD_RULES = new ConcurrentHashMap<>();
+
+    // Utility class
+    private ConfigurationCache() {
+    }
+
+    /**
+     * @throws IllegalStateException if configuration cannot be parsed.
+     */
+    static Configuration getConfiguration(String content) {
+        return get(CONFIGURATIONS, MAX_CONFIGURATIONS, content, ConfigurationReader::readConfiguration);
+    }
+
+    /**
+     * @throws IllegalStateException if rule cannot be parsed.
+     */
+    static ClassRule getClassRule(String comment) {
+        return get(CLASS_RULES, MAX_RULES, comment, ConfigurationReader::readClassRuleFromComment);
+    }
+
+    /**
+     * @throws IllegalStateException if rule cannot be parsed.
+     */
+    static MethodRule getMethodRule(String comment) {
+        return get(METHOD_RULES, MAX_RULES, comment, ConfigurationReader::readMethodRuleFromComment);
+    }
+
+    /**
+     * @throws IllegalStateException if rule cannot be parsed.
+     */
+    static FieldRule getFieldRule(String comment) {
+        return get(FIELD_RULES, MAX_RULES, comment, ConfigurationReader::readFieldRuleFromComment);
+    }
+
+    private static <T> T get(ConcurrentMap<String, T> cache, int maxSize, String text, Function<String, T> reader) {
+        T value = cache.get(text);
+        if (value != null)
+            return value;
+        // parse outside of the map, so parse errors are not cached and don't block other threads
+        value = reader.apply(text);
+        if (cache.size() >= maxSize)
+            cache.clear();
+        T previous = cache.putIfAbsent(text, value);
+        return previous != null ? previous : value;
+    }
+}
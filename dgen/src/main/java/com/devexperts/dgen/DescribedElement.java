@@ -0,0 +1,156 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import com.devexperts.dgen.configuration.ClassRule;
+import com.devexperts.dgen.configuration.FieldRule;
+import com.devexperts.dgen.configuration.MethodRule;
+import com.sun.tools.javac.tree.JCTree;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.lang.model.element.Element;
+
+/**
+ * Declaration with generated descriptions passed to {@link DescriptionSink description sinks}.
+ * <p>
+ * Descriptions reused from the extraction cache have neither rule nor parsed Javadoc.
+ */
+public final class DescribedElement {
+
+    private final JCTree tree;
+    private final Element element;
+    private final ClassRule classRule;
+    private final MethodRule methodRule;
+    private final FieldRule fieldRule;
+    private final ParsedComment comment;
+    private final String description;
+    private final List<String> parameterDescriptions;
+    // binary name of the class which declares the element or of the class itself
+    private final String className;
+    // key of the declaring class or of the class itself, null for declarations which aren't class members
+    private final String classKey;
+
+    private DescribedElement(JCTree tree, Element element, ClassRule classRule, MethodRule methodRule,
+        FieldRule fieldRule, ParsedComment comment, String description, List<String> parameterDescriptions,
+        String className, String classKey)
+    {
+        this.tree = tree;
+        this.element = element;
+        this.classRule = classRule;
+        this.methodRule = methodRule;
+        this.fieldRule = fieldRule;
+        this.comment = comment;
+        this.description = description;
+        this.parameterDescriptions = parameterDescriptions;
+        this.className = className;
+        this.classKey = classKey;
+    }
+
+    static DescribedElement ofClass(JCTree.JCClassDecl classDecl, ClassRule rule, ParsedComment comment,
+        String description, String className, String classKey)
+    {
+        return new DescribedElement(classDecl, classDecl.sym, rule, null, null, comment, description,
+            Collections.emptyList(), className, classKey);
+    }
+
+    /**
+     * @param descriptions description of method followed by descriptions of its parameters.
+     */
+    static DescribedElement ofMethod(JCTree.JCMethodDecl methodDecl, MethodRule rule, ParsedComment comment,
+        String[] descriptions, String className, String classKey)
+    {
+        return new DescribedElement(methodDecl, methodDecl.sym, null, rule, null, comment, descriptions[0],
+            Collections.unmodifiableList(Arrays.asList(descriptions).subList(1, descriptions.length)),
+            className, classKey);
+    }
+
+    static DescribedElement ofField(JCTree.JCVariableDecl varDecl, FieldRule rule, ParsedComment comment,
+        String description, String className, String classKey)
+    {
+        return new DescribedElement(varDecl, varDecl.sym, null, null, rule, comment, description,
+            Collections.emptyList(), className, classKey);
+    }
+
+    /**
+     * @return class, method or field, {@code null} if the declaration isn't attributed.
+     */
+    public Element getElement() {
+        return element;
+    }
+
+    /**
+     * @return rule matched by the class, {@code null} for methods and fields.
+     */
+    public ClassRule getClassRule() {
+        return classRule;
+    }
+
+    /**
+     * @return rule matched by the method, {@code null} for classes and fields.
+     */
+    public MethodRule getMethodRule() {
+        return methodRule;
+    }
+
+    /**
+     * @return rule matched by the field, {@code null} for classes and methods.
+     */
+    public FieldRule getFieldRule() {
+        return fieldRule;
+    }
+
+    /**
+     * @return Javadoc which descriptions are taken from, inherited Javadoc is included.
+     */
+    public ParsedComment getComment() {
+        return comment;
+    }
+
+    /**
+     * @return description of the element, may be {@code null} for methods with described parameters.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return descriptions of method parameters (elements are {@code null} for undescribed parameters),
+     *     empty for classes and fields.
+     */
+    public List<String> getParameterDescriptions() {
+        return parameterDescriptions;
+    }
+
+    JCTree getTree() {
+        return tree;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getClassKey() {
+        return classKey;
+    }
+}
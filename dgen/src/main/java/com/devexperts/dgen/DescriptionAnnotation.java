@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.util.Map;
+
+/**
+ * Describes annotation which is generated by processor.
+ * <p>
+ * By default it's {@code com.devexperts.annotation.Description} from dxlib with {@code value} and {@code name}
+ * members. Any annotation with {@code String} members may be used instead, for example lightweight
+ * {@code com.devexperts.dgen.runtime.Description} from {@code dgen-runtime}.
+ */
+final class DescriptionAnnotation {
+
+    static final String ANNOTATION_KEY = "dgen.annotation";
+    static final String VALUE_MEMBER_KEY = "dgen.annotation.value";
+    static final String NAME_MEMBER_KEY = "dgen.annotation.name";
+
+    static final DescriptionAnnotation DEFAULT =
+        new DescriptionAnnotation("com.devexperts.annotation.Description", "value", "name");
+
+    private final String qualifiedName;
+    private final String valueMember;
+    private final String nameMember;
+
+    DescriptionAnnotation(String qualifiedName, String valueMember, String nameMember) {
+        this.qualifiedName = qualifiedName;
+        this.valueMember = valueMember;
+        this.nameMember = nameMember;
+    }
+
+    /**
+     * Creates description annotation from processor options, missing options are taken from {@link #DEFAULT}.
+     * Empty {@link #NAME_MEMBER_KEY} option means that annotation has no member for parameter name.
+     */
+    static DescriptionAnnotation fromOptions(Map<String, String> options) {
+        String qualifiedName = getOption(options, ANNOTATION_KEY, DEFAULT.qualifiedName);
+        String valueMember = getOption(options, VALUE_MEMBER_KEY, DEFAULT.valueMember);
+        String nameMember = getOption(options, NAME_MEMBER_KEY, DEFAULT.nameMember);
+        if (qualifiedName.isEmpty() || valueMember.isEmpty())
+            throw new IllegalArgumentException("Annotation and its value member shouldn't be empty");
+        return new DescriptionAnnotation(qualifiedName, valueMember, nameMember.isEmpty() ? null : nameMember);
+    }
+
+    // javac passes null value for "-Akey=" option
+    private static String getOption(Map<String, String> options, String key, String defaultValue) {
+        if (!options.containsKey(key))
+            return defaultValue;
+        String value = options.get(key);
+        return value != null ? value.trim() : "";
+    }
+
+    /**
+     * @return qualified name of annotation.
+     */
+    String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    /**
+     * @return name of annotation member for description.
+     */
+    String getValueMember() {
+        return valueMember;
+    }
+
+    /**
+     * @return name of annotation member for parameter name or {@code null} if annotation has no such member.
+     */
+    String getNameMember() {
+        return nameMember;
+    }
+
+    @Override
+    public String toString() {
+        return qualifiedName + "(" + valueMember + (nameMember != null ? ", " + nameMember : "") + ")";
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalizes and truncates descriptions once at compile time, so consumers of generated annotations
+ * don't need to clean Javadoc markup at runtime.
+ */
+public final class DescriptionFormatter {
+
+    private static final String ELLIPSIS = "...";
+
+    // HTML elements which separate words, other tags are removed without replacement
+    private static final Set<String> BLOCK_ELEMENTS = new HashSet<>(Arrays.asList(
+        "p", "br", "hr", "div", "pre", "blockquote", "ul", "ol", "li", "dl", "dt", "dd",
+        "table", "tr", "td", "th", "h1", "h2", "h3", "h4", "h5", "h6"
+    ));
+
+    // No constructor, utility class
+    private DescriptionFormatter() {
+    }
+
+    /**
+     * Formats description according to rule options.
+     *
+     * @param description description to be formatted.
+     * @param normalize   {@code true} if description should be {@link #normalize(String) normalized}.
+     * @param maxLength   maximal length of description, non-positive value means no limit.
+     * @return formatted description or {@code null} if nothing is left after normalization.
+     */
+    public static String format(String description, boolean normalize, int maxLength) {
+        if (description == null)
+            return null;
+        if (normalize) {
+            description = normalize(description);
+            if (description.isEmpty())
+                return null;
+        }
+        return maxLength > 0 ? truncate(description, maxLength) : description;
+    }
+
+    /**
+     * Returns plain text of Javadoc fragment: inline tags are replaced with their text ({@code {@code x}} with
+     * {@code x}, {@code {@link A#b label}} with {@code label}, {@code {@link A#b}} with {@code A.b}),
+     * HTML tags are removed, HTML entities are decoded and all whitespace sequences are collapsed into
+     * single spaces.
+     */
+    public static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int end;
+            if (c == '{' && text.startsWith("{@", i) && (end = closingBrace(text, i)) > 0) {
+                appendInlineTag(builder, text.substring(i + 2, end));
+                i = end + 1;
+            } else if (c == '<' && text.startsWith("<!--", i) && (end = text.indexOf("-->", i)) > 0) {
+                i = end + 3;
+            } else if (c == '<' && isTagStart(text, i + 1) && (end = text.indexOf('>', i)) > 0) {
+                if (BLOCK_ELEMENTS.contains(elementName(text, i + 1, end)))
+                    builder.append(' ');
+                i = end + 1;
+            } else if (c == '&' && (end = text.indexOf(';', i)) > 0 && appendEntity(builder, text, i + 1, end)) {
+                i = end + 1;
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return collapseWhitespace(builder);
+    }
+
+    /**
+     * Truncates text to specified length at sentence boundary. If even the first sentence doesn't fit,
+     * text is truncated at word boundary and ends with {@code "..."}.
+     */
+    public static String truncate(String text, int maxLength) {
+        if (text.length() <= maxLength)
+            return text;
+        int sentenceEnd = -1;
+        for (int i = 0; i < maxLength; i++) {
+            char c = text.charAt(i);
+            if ((c == '.' || c == '!' || c == '?') && Character.isWhitespace(text.charAt(i + 1)))
+                sentenceEnd = i + 1;
+        }
+        if (sentenceEnd > 0)
+            return text.substring(0, sentenceEnd);
+
+        int limit = maxLength - ELLIPSIS.length();
+        if (limit <= 0)
+            return text.substring(0, cutPosition(text, maxLength));
+        int cut = limit;
+        while (cut > 0 && !Character.isWhitespace(text.charAt(cut)))
+            cut--;
+        if (cut == 0)
+            cut = limit;
+        return text.substring(0, cutPosition(text, cut)).trim() + ELLIPSIS;
+    }
+
+    // don't split surrogate pairs
+    private static int cutPosition(String text, int position) {
+        return Character.isHighSurrogate(text.charAt(position - 1)) ? position - 1 : position;
+    }
+
+    private static int closingBrace(String text, int start) {
+        int depth = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendInlineTag(StringBuilder builder, String tag) {
+        int nameEnd = 0;
+        while (nameEnd < tag.length() && !Character.isWhitespace(tag.charAt(nameEnd)))
+            nameEnd++;
+        String name = tag.substring(0, nameEnd);
+        String content = tag.substring(nameEnd).trim();
+        switch (name) {
+        case "link":
+        case "linkplain":
+        case "value":
+            // reference may contain spaces only inside parameter list
+            int referenceEnd = 0;
+            int parentheses = 0;
+            while (referenceEnd < content.length()) {
+                char c = content.charAt(referenceEnd);
+                if (c == '(') {
+                    parentheses++;
+                } else if (c == ')') {
+                    parentheses--;
+                } else if (parentheses == 0 && Character.isWhitespace(c)) {
+                    break;
+                }
+                referenceEnd++;
+            }
+            String label = content.substring(referenceEnd).trim();
+            if (label.isEmpty()) {
+                String reference = content.substring(0, referenceEnd);
+                label = (reference.startsWith("#") ? reference.substring(1) : reference).replace('#', '.');
+            }
+            builder.append(label);
+            break;
+        case "inheritDoc":
+        case "docRoot":
+            break;
+        default: // code, literal and unknown tags
+            builder.append(content);
+        }
+    }
+
+    private static boolean isTagStart(String text, int index) {
+        return index < text.length() && (Character.isLetter(text.charAt(index)) || text.charAt(index) == '/');
+    }
+
+    private static String elementName(String text, int start, int end) {
+        int i = text.charAt(start) == '/' ? start + 1 : start;
+        int nameEnd = i;
+        while (nameEnd < end && Character.isLetterOrDigit(text.charAt(nameEnd)))
+            nameEnd++;
+        return text.substring(i, nameEnd).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean appendEntity(StringBuilder builder, String text, int start, int end) {
+        String entity = text.substring(start, end);
+        switch (entity) {
+        case "lt":
+            builder.append('<');
+            return true;
+        case "gt":
+            builder.append('>');
+            return true;
+        case "amp":
+            builder.append('&');
+            return true;
+        case "quot":
+            builder.append('"');
+            return true;
+        case "apos":
+            builder.append('\'');
+            return true;
+        case "nbsp":
+            builder.append(' ');
+            return true;
+        default:
+            if (entity.length() < 2 || entity.length() > 8 || entity.charAt(0) != '#')
+                return false;
+            try {
+                int codePoint = entity.charAt(1) == 'x' || entity.charAt(1) == 'X' ?
+                    Integer.parseInt(entity.substring(2), 16) : Integer.parseInt(entity.substring(1));
+                if (!Character.isValidCodePoint(codePoint))
+                    return false;
+                builder.appendCodePoint(codePoint);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+
+    private static String collapseWhitespace(CharSequence text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean whitespace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == ' ') {
+                whitespace = builder.length() > 0;
+            } else {
+                if (whitespace)
+                    builder.append(' ');
+                builder.append(c);
+                whitespace = false;
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.io.IOException;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Receives descriptions generated by {@link DgenProcessor}, so other outputs (indexes, reports, custom annotations)
+ * are fed from the same traversal of sources and the same parsing of Javadoc.
+ * <p>
+ * Sinks are loaded by {@link java.util.ServiceLoader} from the annotation processor path
+ * ({@code META-INF/services/com.devexperts.dgen.DescriptionSink}) or added by {@link DgenProcessor#addSink}.
+ * Injection of description annotations is the first sink, so other sinks see the annotated trees.
+ * An instance of sink is used by one compilation.
+ */
+public interface DescriptionSink {
+
+    /**
+     * Initializes sink before processing.
+     */
+    default void init(ProcessingEnvironment processingEnv) {
+    }
+
+    /**
+     * Called before declarations of top-level class are described.
+     */
+    default void startClass(TypeElement topLevelClass) {
+    }
+
+    /**
+     * Receives described declaration of the current top-level class.
+     * Nested declarations are described before enclosing ones.
+     */
+    void describe(DescribedElement element);
+
+    /**
+     * Called after all declarations of top-level class are described.
+     */
+    default void endClass(TypeElement topLevelClass) throws IOException {
+    }
+
+    /**
+     * Called after the last round of annotation processing.
+     */
+    default void processingOver() throws IOException {
+    }
+}
@@ -21,14 +21,17 @@
  */
 package com.devexperts.dgen;
 
-import com.devexperts.annotation.Description;
 import com.devexperts.dgen.configuration.ClassRule;
 import com.devexperts.dgen.configuration.Configuration;
-import com.devexperts.dgen.configuration.ConfigurationReader;
 import com.devexperts.dgen.configuration.DescriptionRetrieveStrategy;
 import com.devexperts.dgen.configuration.FieldRule;
 import com.devexperts.dgen.configuration.MethodRule;
+import com.devexperts.dgen.configuration.predicates.HasAnnotationPredicate;
+import com.devexperts.dgen.configuration.predicates.TreePredicate;
+import com.devexperts.dgen.configuration.predicates.TreePredicates;
+import com.sun.source.doctree.DocCommentTree;
 import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
 import com.sun.source.util.DocTrees;
 import com.sun.source.util.TreePath;
 import com.sun.source.util.Trees;
@@ -37,25 +40,37 @@ import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.TreeMaker;
 import com.sun.tools.javac.tree.TreeTranslator;
 import com.sun.tools.javac.util.Context;
-import com.sun.tools.javac.util.List;
 import com.sun.tools.javac.util.Names;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
 
@@ -63,24 +78,93 @@ import static javax.tools.Diagnostic.Kind.ERROR;
 import static javax.tools.Diagnostic.Kind.WARNING;
 
 /**
- * This annotation processor generates {@link com.devexperts.annotation.Description} annotation
- * for classes/methods/fields from Javadoc.
+ * This annotation processor generates {@code com.devexperts.annotation.Description} (or another configured)
+ * annotation for classes/methods/fields from Javadoc.
  *
  * See README.md for details.
  */
 @SupportedAnnotationTypes("*")
+@SupportedOptions({
+    DgenProcessor.DGEN_CONFIGURATION_PATH_KEY,
+    DgenProcessor.DGEN_PROJECT_DIR_KEY,
+    DgenProcessor.DGEN_COMPANIONS_KEY,
+    DgenProcessor.DGEN_NATIVE_IMAGE_KEY,
+    DgenProcessor.DGEN_SIDECAR_KEY,
+    DgenProcessor.DGEN_CACHE_KEY,
+    DgenProcessor.DGEN_INHERIT_DOC_KEY,
+    DgenProcessor.DGEN_RENDER_INLINE_TAGS_KEY,
+    DgenProcessor.DGEN_PROFILE_KEY,
+    DgenProcessor.DGEN_REPORT_KEY,
+    DgenProcessor.DGEN_BUDGET_MILLIS_KEY,
+    DescriptionAnnotation.ANNOTATION_KEY,
+    DescriptionAnnotation.VALUE_MEMBER_KEY,
+    DescriptionAnnotation.NAME_MEMBER_KEY
+})
 public class DgenProcessor extends AbstractProcessor {
 
-    private static final String DGEN_CONFIGURATION_PATH_KEY = "dgen.config";
+    static final String DGEN_CONFIGURATION_PATH_KEY = "dgen.config";
     private static final String DGEN_CONFIGURATION_PATH_DEFAULT = "dgen.config";
+    // base directory for relative configuration path instead of the working directory of the compiler
+    static final String DGEN_PROJECT_DIR_KEY = "dgen.projectDir";
+    static final String DGEN_COMPANIONS_KEY = "dgen.companions";
+    static final String DGEN_NATIVE_IMAGE_KEY = "dgen.nativeImage";
+    static final String DGEN_SIDECAR_KEY = "dgen.sidecar";
+    static final String DGEN_CACHE_KEY = "dgen.cache";
+    static final String DGEN_INHERIT_DOC_KEY = "dgen.inheritDoc";
+    static final String DGEN_RENDER_INLINE_TAGS_KEY = "dgen.renderInlineTags";
+    static final String DGEN_PROFILE_KEY = "dgen.profile";
+    static final String DGEN_REPORT_KEY = "dgen.report";
+    // "<compilation unit budget>[,<round budget>]" in milliseconds
+    static final String DGEN_BUDGET_MILLIS_KEY = "dgen.budgetMillis";
+    private static final int MAX_REPORTED_CLASSES = 5;
 
     private Trees trees;
-    private TreeMaker treeMaker;
-    private Names names;
     private DocTrees docTrees;
 
     private Configuration configuration = new Configuration(Collections.emptyList());
     private boolean processingEnabled;
+    // annotation injection followed by added and loaded sinks
+    private final List<DescriptionSink> sinks = new ArrayList<>();
+    // cache of extracted descriptions or null if it is not used
+    private ExtractionCache extractionCache;
+    private final ProcessingStatistics statistics = new ProcessingStatistics();
+    // resolves Javadoc of overridden methods or null if it isn't inherited
+    private InheritedDocResolver inheritedDocResolver;
+    // renders inline Javadoc tags or null if they are kept verbatim
+    private InlineTagRenderer inlineTagRenderer;
+    // package name -> rule of @dgen.annotate tag in Javadoc of package-info.java, looked up once per package
+    private final Map<String, PackageRule> packageRules = new HashMap<>();
+    // rule of @dgen.annotate tag cached by ConfigurationCache -> the rule bound to this compilation
+    private final Map<ClassRule, ClassRule> commentClassRules = new IdentityHashMap<>();
+    private final Map<MethodRule, MethodRule> commentMethodRules = new IdentityHashMap<>();
+    private final Map<FieldRule, FieldRule> commentFieldRules = new IdentityHashMap<>();
+    // profiles rules of configuration file or null if they aren't profiled
+    private RuleProfiler ruleProfiler;
+    private Path profilePath;
+    // writes report of generated descriptions or null if it isn't written
+    private BuildReportWriter buildReport;
+    // latency budgets, 0 if not limited
+    private long unitBudgetNanos;
+    private long roundBudgetNanos;
+    private long roundStart;
+    // top-level classes of the current round processed with reduced fidelity because of exceeded budget
+    private final List<String> degradedClasses = new ArrayList<>();
+    private int degradedElements;
+
+    /**
+     * Returns counters of work done by this processor, the processor instance is used by one compilation.
+     */
+    public ProcessingStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Adds sink of generated descriptions, it should be added before processing is started.
+     * Sinks listed in {@code META-INF/services/com.devexperts.dgen.DescriptionSink} are added automatically.
+     */
+    public void addSink(DescriptionSink sink) {
+        sinks.add(sink);
+    }
 
     @Override
     public SourceVersion getSupportedSourceVersion() {
@@ -96,10 +180,13 @@ public class DgenProcessor extends AbstractProcessor {
             if (javacProcessingEnv == null)
                 return;
 
-            String filename = processingEnv.getOptions().get(DGEN_CONFIGURATION_PATH_KEY);
+            ProcessorPhase configurationLoad = ProcessorEvents.configurationLoad();
+            byte[] configurationContent = null;
+            String filename = resolvePath(processingEnv.getOptions().get(DGEN_CONFIGURATION_PATH_KEY));
             if (filename == null) {
-                if (Files.exists(Paths.get(DGEN_CONFIGURATION_PATH_DEFAULT))) {
-                    filename = DGEN_CONFIGURATION_PATH_DEFAULT;
+                String defaultFilename = resolvePath(DGEN_CONFIGURATION_PATH_DEFAULT);
+                if (Files.exists(Paths.get(defaultFilename))) {
+                    filename = defaultFilename;
                 } else {
                     processingEnv.getMessager().printMessage(WARNING,
                         "Dgen configuration file not found, use empty configuration");
@@ -108,7 +195,10 @@ public class DgenProcessor extends AbstractProcessor {
             if (filename != null) {
                 processingEnv.getMessager().printMessage(WARNING, "Load dgen configuration from " + filename);
                 try {
-                    configuration = ConfigurationReader.readConfigurationFromFile(filename);
+                    configurationContent = Files.readAllBytes(Paths.get(filename));
+                    // default charset as for ConfigurationReader.readConfigurationFromFile
+                    configuration = ConfigurationCache.getConfiguration(
+                        new String(configurationContent, Charset.defaultCharset()));
                     processingEnv.getMessager().printMessage(WARNING,
                         "Dgen configuration loaded successfully:\n" + configuration);
                 } catch (IOException e) {
@@ -119,24 +209,184 @@ public class DgenProcessor extends AbstractProcessor {
                         "Error during parsing configuration from \"" + filename + "\"");
                 }
             }
+            String profile = resolvePath(processingEnv.getOptions().get(DGEN_PROFILE_KEY));
+            if (profile != null) {
+                profilePath = Paths.get(profile);
+                ruleProfiler = new RuleProfiler(filename != null ? filename : DGEN_CONFIGURATION_PATH_DEFAULT);
+                configuration = ruleProfiler.profile(configuration, this::bindPredicate);
+            } else {
+                configuration = bindPredicates(configuration);
+            }
+            configurationLoad.memberCount(configuration.getClassRules().size()).finish();
             Context context = javacProcessingEnv.getContext();
 
             trees = Trees.instance(javacProcessingEnv);
-            treeMaker = TreeMaker.instance(context);
-            names = Names.instance(context);
             docTrees = DocTrees.instance(javacProcessingEnv);
 
+            boolean generateCompanions = Boolean.parseBoolean(processingEnv.getOptions().get(DGEN_COMPANIONS_KEY));
+            boolean generateSidecars = Boolean.parseBoolean(processingEnv.getOptions().get(DGEN_SIDECAR_KEY));
+            if (generateSidecars && generateCompanions) {
+                // companion constants are inlined into dependent classes, so they would make text ABI-relevant
+                processingEnv.getMessager().printMessage(WARNING,
+                    "Dgen companion classes are not generated in sidecar mode");
+                generateCompanions = false;
+            }
+            sinks.add(0, new AnnotationInjectionSink(TreeMaker.instance(context), Names.instance(context),
+                DescriptionAnnotation.fromOptions(processingEnv.getOptions()), generateCompanions,
+                processingEnv.getOptions().get(DGEN_NATIVE_IMAGE_KEY), generateSidecars));
+            loadSinks();
+            for (DescriptionSink sink : sinks) {
+                sink.init(processingEnv);
+            }
+            String inheritDoc = processingEnv.getOptions().get(DGEN_INHERIT_DOC_KEY);
+            if (Boolean.parseBoolean(inheritDoc)) {
+                inheritedDocResolver = new InheritedDocResolver(docTrees, processingEnv.getElementUtils(),
+                    statistics, this::parseComment);
+            }
+            if (Boolean.parseBoolean(processingEnv.getOptions().get(DGEN_RENDER_INLINE_TAGS_KEY)))
+                inlineTagRenderer = new InlineTagRenderer(docTrees, processingEnv.getElementUtils(), statistics);
+            String cacheDirectory = resolvePath(processingEnv.getOptions().get(DGEN_CACHE_KEY));
+            if (cacheDirectory != null) {
+                String options = "inheritDoc=" + (inheritedDocResolver != null) +
+                    ",renderInlineTags=" + (inlineTagRenderer != null);
+                extractionCache = new ExtractionCache(Paths.get(cacheDirectory), configurationContent, options);
+            }
+            String budget = processingEnv.getOptions().get(DGEN_BUDGET_MILLIS_KEY);
+            if (budget != null)
+                parseBudget(budget);
+            String report = resolvePath(processingEnv.getOptions().get(DGEN_REPORT_KEY));
+            if (report != null)
+                buildReport = new BuildReportWriter(Paths.get(report));
             processingEnabled = true;
         } catch (Exception e) {
             logException(e);
         }
     }
 
+    private void loadSinks() {
+        try {
+            for (DescriptionSink sink : ServiceLoader.load(DescriptionSink.class, getClass().getClassLoader())) {
+                sinks.add(sink);
+            }
+        } catch (ServiceConfigurationError e) {
+            processingEnv.getMessager().printMessage(ERROR, "Unable to load dgen description sink: " + e.getMessage());
+        }
+    }
+
+    private void parseBudget(String budget) {
+        try {
+            String[] budgets = budget.split(",", -1);
+            if (budgets.length > 2)
+                throw new NumberFormatException();
+            unitBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(budgets[0].trim()));
+            if (budgets.length > 1)
+                roundBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(budgets[1].trim()));
+            if (unitBudgetNanos < 0 || roundBudgetNanos < 0)
+                throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            unitBudgetNanos = 0;
+            roundBudgetNanos = 0;
+            processingEnv.getMessager().printMessage(WARNING,
+                "Invalid dgen latency budget \"" + budget + "\", processing time is not limited");
+        }
+    }
+
+    /**
+     * Returns configuration with predicates bound to this compilation: annotation types are resolved once
+     * and evaluations of predicates are counted in {@link #statistics}.
+     */
+    private Configuration bindPredicates(Configuration configuration) {
+        return configuration.mapPredicates(this::bindPredicate);
+    }
+
+    private ClassRule bindPredicates(ClassRule classRule) {
+        return classRule.mapPredicates(this::bindPredicate);
+    }
+
+    /**
+     * Returns class rule of {@code @dgen.annotate} tag bound to this compilation, rules parsed from the same tag
+     * are bound once.
+     *
+     * @throws IllegalStateException if rule cannot be parsed.
+     */
+    private ClassRule getCommentClassRule(String tag) {
+        return commentClassRules.computeIfAbsent(ConfigurationCache.getClassRule(tag), this::bindPredicates);
+    }
+
+    /**
+     * Returns method rule of {@code @dgen.annotate} tag bound to this compilation, rules parsed from the same tag
+     * are bound once.
+     *
+     * @throws IllegalStateException if rule cannot be parsed.
+     */
+    private MethodRule getCommentMethodRule(String tag) {
+        return commentMethodRules.computeIfAbsent(ConfigurationCache.getMethodRule(tag),
+            rule -> rule.mapPredicates(this::bindPredicate));
+    }
+
+    /**
+     * Returns field rule of {@code @dgen.annotate} tag bound to this compilation, rules parsed from the same tag
+     * are bound once.
+     *
+     * @throws IllegalStateException if rule cannot be parsed.
+     */
+    private FieldRule getCommentFieldRule(String tag) {
+        return commentFieldRules.computeIfAbsent(ConfigurationCache.getFieldRule(tag),
+            rule -> rule.mapPredicates(this::bindPredicate));
+    }
+
+    private TreePredicate bindPredicate(TreePredicate predicate) {
+        if (predicate instanceof HasAnnotationPredicate)
+            predicate = ((HasAnnotationPredicate) predicate).bind(processingEnv.getElementUtils());
+        return TreePredicates.counting(predicate, statistics::predicateEvaluated);
+    }
+
+    /**
+     * Returns rule defined by {@code @dgen.annotate} tag in Javadoc of {@code package-info.java} of the package
+     * of specified top-level class, the tag is looked up and parsed once per package.
+     *
+     * @throws IllegalStateException if rule cannot be parsed.
+     */
+    private PackageRule getPackageRule(TypeElement topLevelClass) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(topLevelClass);
+        String packageName = packageElement.getQualifiedName().toString();
+        PackageRule packageRule = packageRules.get(packageName);
+        if (packageRule == null) {
+            statistics.packageRuleLookup();
+            // package-info.java has tree and Javadoc only if it is compiled together with the classes
+            TreePath path = docTrees.getPath(packageElement);
+            ParsedComment comment = path != null ?
+                ParsedComment.createFromDocComment(docTrees.getDocCommentTree(path)) : null;
+            String tag = comment != null ? comment.getDgenAnnotateTagValue() : null;
+            packageRule = tag != null ? new PackageRule(tag, getCommentClassRule(tag)) : PackageRule.NONE;
+            packageRules.put(packageName, packageRule);
+        }
+        return packageRule;
+    }
+
+    /**
+     * Parses Javadoc of declaration, inline tags are rendered if it is enabled.
+     */
+    private ParsedComment parseComment(TreePath path, DocCommentTree docComment, Set<CompilationUnitTree> sources) {
+        if (inlineTagRenderer == null || docComment == null)
+            return ParsedComment.createFromDocComment(docComment);
+        return ParsedComment.createFromDocComment(docComment,
+            tag -> inlineTagRenderer.render(tag, path, docComment, sources));
+    }
+
+    private String resolvePath(String filename) {
+        String projectDir = processingEnv.getOptions().get(DGEN_PROJECT_DIR_KEY);
+        if (filename == null || projectDir == null)
+            return filename;
+        return Paths.get(projectDir).resolve(filename).toString();
+    }
+
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         if (!processingEnabled)
             return false;
         try {
+            roundStart = System.nanoTime();
             Set<? extends Element> elements = roundEnv.getRootElements();
             for (Element element : elements) {
                 switch (element.getKind()) {
@@ -144,11 +394,55 @@ public class DgenProcessor extends AbstractProcessor {
                 case INTERFACE:
                 case ANNOTATION_TYPE:
                 case ENUM:
+                    if (element.getSimpleName().toString().endsWith(CompanionClassWriter.COMPANION_SUFFIX))
+                        continue; // generated companion
                     JCTree.JCClassDecl classDecl = (JCTree.JCClassDecl)trees.getTree(element);
                     CompilationUnitTree compilationUnitTree = trees.getPath(element).getCompilationUnit();
-                    classDecl.accept(new DescriptionGenerator(compilationUnitTree));
+                    TypeElement typeElement = (TypeElement) element;
+                    String binaryName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+                    ProcessorPhase unitPhase = ProcessorEvents.compilationUnit().className(binaryName);
+                    long unitStart = buildReport != null ? System.nanoTime() : 0;
+                    PackageRule packageRule = getPackageRule(typeElement);
+                    String fingerprint = null;
+                    Map<Integer, String[]> cached = null;
+                    if (extractionCache != null) {
+                        fingerprint = extractionCache.fingerprint(
+                            compilationUnitTree.getSourceFile().getCharContent(true), packageRule.tag);
+                        cached = extractionCache.load(binaryName, fingerprint);
+                    }
+                    for (DescriptionSink sink : sinks) {
+                        sink.startClass(typeElement);
+                    }
+                    DescriptionGenerator generator =
+                        new DescriptionGenerator(compilationUnitTree, packageRule.rule, cached);
+                    generator.translate(classDecl);
+                    if (generator.degraded)
+                        degradedClasses.add(binaryName);
+                    if (extractionCache != null && cached == null && generator.isCacheable())
+                        extractionCache.store(binaryName, fingerprint, generator.extracted);
+                    for (DescriptionSink sink : sinks) {
+                        sink.endClass(typeElement);
+                    }
+                    unitPhase.memberCount(generator.declarationOrdinal).finish();
+                    if (buildReport != null) {
+                        buildReport.unit(binaryName, generator.reportedElements, generator.reportedBytes,
+                            System.nanoTime() - unitStart);
+                    }
+                }
+            }
+            reportDegradedClasses();
+            if (roundEnv.processingOver()) {
+                for (DescriptionSink sink : sinks) {
+                    sink.processingOver();
                 }
             }
+            if (roundEnv.processingOver() && ruleProfiler != null)
+                ruleProfiler.write(profilePath);
+            if (roundEnv.processingOver() && buildReport != null) {
+                BuildReportWriter report = buildReport;
+                buildReport = null;
+                report.close();
+            }
         } catch (Exception e) {
             logException(e);
         }
@@ -156,6 +450,25 @@ public class DgenProcessor extends AbstractProcessor {
         return false;
     }
 
+    /**
+     * Reports classes of the current round processed with reduced fidelity because latency budget was exceeded.
+     */
+    private void reportDegradedClasses() {
+        if (degradedClasses.isEmpty())
+            return;
+        StringBuilder message = new StringBuilder("Dgen latency budget is exceeded, ").append(degradedElements)
+            .append(" descriptions of ").append(degradedClasses.size())
+            .append(" classes are retrieved from the first sentence without inherited Javadoc")
+            .append(" and rendering of inline tags and are not cached: ");
+        message.append(String.join(", ", degradedClasses.subList(0,
+            Math.min(degradedClasses.size(), MAX_REPORTED_CLASSES))));
+        if (degradedClasses.size() > MAX_REPORTED_CLASSES)
+            message.append(", ...");
+        processingEnv.getMessager().printMessage(WARNING, message);
+        degradedClasses.clear();
+        degradedElements = 0;
+    }
+
     /**
      * Attempt to get JavacProcessingEnvironment from provided {@link ProcessingEnvironment} instance. In case of
      * gradle incremental compilation, the delegate ProcessingEnvironment of the gradle wrapper is returned.
@@ -247,15 +560,60 @@ public class DgenProcessor extends AbstractProcessor {
         processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, msg.toString());
     }
 
+    /**
+     * Rule defined by {@code @dgen.annotate} tag in Javadoc of {@code package-info.java}.
+     */
+    private static class PackageRule {
+        static final PackageRule NONE = new PackageRule(null, null);
+
+        // tag value or null if the package has no tag
+        final String tag;
+        final ClassRule rule;
+
+        PackageRule(String tag, ClassRule rule) {
+            this.tag = tag;
+            this.rule = rule;
+        }
+    }
+
     private class DescriptionGenerator extends TreeTranslator {
 
         private final CompilationUnitTree compilationUnitTree;
-        // classConfiguration.peek() contains current class configuration
-        private final Stack<ClassRule> classRule = new Stack<>();
+        // trees from the top-level class to the currently translated one
+        private final ArrayList<JCTree> path = new ArrayList<>();
+        // rule of the current class, null if no rule is applied
+        private ClassRule classRule;
+        // rule of classes of the package without own @dgen.annotate tag, null if the package has no tag
+        private final ClassRule packageRule;
         private boolean visitClassMembers = false;
-
-        private DescriptionGenerator(CompilationUnitTree compilationUnitTree) {
+        // true inside classes excluded by configuration
+        private boolean excluded;
+        // simple names of visited classes nested into top-level one
+        private final List<String> nestedClassNames = new ArrayList<>();
+        private String classKey;
+        private String classBinaryName;
+        // descriptions extracted from Javadoc by declaration ordinal (see ExtractionCache)
+        private final Map<Integer, String[]> extracted;
+        // true if extracted descriptions are taken from cache instead of Javadoc
+        private final boolean replay;
+        // System.nanoTime() when processing of the compilation unit is started
+        private final long unitStart = System.nanoTime();
+        // true if the budget is exceeded and descriptions are extracted with reduced fidelity
+        private boolean degraded;
+        private int declarationOrdinal;
+        // compilation units which Javadoc was inherited or looked up for inheritance or which constants were rendered
+        private final Set<CompilationUnitTree> inheritedSources = new HashSet<>();
+        // number of described elements and size of their descriptions in UTF-8 for build report
+        private int reportedElements;
+        private long reportedBytes;
+
+        private DescriptionGenerator(CompilationUnitTree compilationUnitTree, ClassRule packageRule,
+            Map<Integer, String[]> cached)
+        {
             this.compilationUnitTree = compilationUnitTree;
+            this.packageRule = packageRule;
+            this.replay = cached != null;
+            this.extracted = cached != null ? cached : new HashMap<>();
         }
 
         @Override
@@ -265,164 +623,367 @@ public class DgenProcessor extends AbstractProcessor {
                 return;
             }
 
-            ParsedComment comment = ParsedComment.createFromDocComment(
-                docTrees.getDocCommentTree(TreePath.getPath(compilationUnitTree, classDecl))
-            );
-            if (comment != null && comment.getDgenAnnotateTagValue() != null) {
-                classRule.push(ConfigurationReader.readClassRuleFromComment(comment.getDgenAnnotateTagValue()));
-            } else {
-                classRule.push(configuration.applyClass(classDecl));
+            int ordinal = declarationOrdinal++;
+            ParsedComment comment = null;
+            ClassRule currentClassRule = classRule;
+            boolean currentExcluded = excluded;
+            String currentClassBinaryName = classBinaryName;
+            classBinaryName = classDecl.sym.flatName().toString();
+            long start = reportTime();
+            if (!replay && !excluded) {
+                // excluded classes are skipped before parsing of Javadoc
+                ProcessorPhase ruleMatch = ProcessorEvents.ruleMatch().className(classBinaryName)
+                    .memberCount(classDecl.defs.size());
+                classRule = configuration.applyClass(classDecl);
+                if (classRule == null || !classRule.getOptions().isExclude()) {
+                    comment = parseComment();
+                    if (comment != null && comment.getDgenAnnotateTagValue() != null) {
+                        classRule = getCommentClassRule(comment.getDgenAnnotateTagValue());
+                    } else if (packageRule != null) {
+                        classRule = packageRule;
+                    }
+                }
+                ruleMatch.strategy(classRule != null ? classRule.getOptions().getDescriptionRetrieveStrategy() : null)
+                    .finish();
+                if (classRule != null && classRule.getOptions().isExclude()) {
+                    excluded = true;
+                    classRule = null;
+                }
             }
 
+            String currentClassKey = classKey;
+            if (classKey != null)
+                nestedClassNames.add(classDecl.getSimpleName().toString());
+            classKey = ElementKeys.classKey(nestedClassNames);
+
             boolean currentVisitClassMembers = this.visitClassMembers;
             visitClassMembers = true;
             super.visitClassDef(classDecl);
             visitClassMembers = currentVisitClassMembers;
 
-            if (classRule.peek() != null && classRule.peek().getOptions().isAnnotateClass()
-                && !containsDescriptionAnnotation(classDecl.getModifiers()) && comment != null)
-            {
-                DescriptionRetrieveStrategy retrieveStrategy = classRule.peek().getOptions().getDescriptionRetrieveStrategy();
-                if (retrieveStrategy == null) // Use FIRST_SENTENCE strategy by default
-                    retrieveStrategy = DescriptionRetrieveStrategy.FIRST_SENTENCE;
-                String description = getDescription(comment, retrieveStrategy);
-                if (description != null)
-                    appendDescriptionAnnotation(classDecl.mods, description);
+            long matchNanos = reportTime() - start;
+            String description = replay ? extractedDescription(ordinal) :
+                extractClassDescription(ordinal, comment, matchNanos);
+            if (replay && description != null)
+                report("class", classBinaryName, null, null, 0, description);
+            if (description != null) {
+                describe(DescribedElement.ofClass(classDecl, replay ? null : classRule, comment, description,
+                    classBinaryName, classKey));
+            }
+
+            if (currentClassKey != null)
+                nestedClassNames.remove(nestedClassNames.size() - 1);
+            classKey = currentClassKey;
+            classBinaryName = currentClassBinaryName;
+            classRule = currentClassRule;
+            excluded = currentExcluded;
+        }
+
+        @Override
+        public <T extends JCTree> T translate(T tree) {
+            if (tree == null)
+                return null;
+            statistics.nodeVisited();
+            path.add(tree);
+            try {
+                return super.translate(tree);
+            } finally {
+                path.remove(path.size() - 1);
+            }
+        }
+
+        /**
+         * Returns parsed Javadoc of the currently translated tree.
+         * <p>
+         * Tree path is built from tracked ancestors, {@link TreePath#getPath(CompilationUnitTree, Tree)} would scan
+         * the compilation unit for each declaration, so processing of large classes would be quadratic.
+         */
+        private ParsedComment parseComment() {
+            ProcessorPhase docCommentParse = ProcessorEvents.docCommentParse().className(classBinaryName);
+            statistics.docCommentLookup();
+            TreePath treePath = new TreePath(compilationUnitTree);
+            for (JCTree tree : path) {
+                statistics.nodeVisited();
+                treePath = new TreePath(treePath, tree);
             }
+            DocCommentTree docComment = docTrees.getDocCommentTree(treePath);
+            ParsedComment comment = isOverBudget() ? ParsedComment.createFromDocComment(docComment) :
+                DgenProcessor.this.parseComment(treePath, docComment, inheritedSources);
+            docCommentParse.finish();
+            return comment;
+        }
+
+        /**
+         * Returns {@code true} if extracted descriptions depend only on the compilation unit of the class,
+         * so they may be reused while its source isn't changed.
+         */
+        boolean isCacheable() {
+            if (degraded)
+                return false;
+            for (CompilationUnitTree unit : inheritedSources) {
+                if (unit != compilationUnitTree)
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Returns {@code true} if latency budget of the compilation unit or of the round is exceeded,
+         * then descriptions are extracted with reduced fidelity.
+         */
+        private boolean isOverBudget() {
+            if (!degraded && (unitBudgetNanos > 0 || roundBudgetNanos > 0)) {
+                long now = System.nanoTime();
+                degraded = unitBudgetNanos > 0 && now - unitStart > unitBudgetNanos ||
+                    roundBudgetNanos > 0 && now - roundStart > roundBudgetNanos;
+            }
+            return degraded;
+        }
+
+        /**
+         * Returns the strategy to be used instead of {@code retrieveStrategy} within latency budget.
+         */
+        private DescriptionRetrieveStrategy budgeted(DescriptionRetrieveStrategy retrieveStrategy) {
+            if (!isOverBudget())
+                return retrieveStrategy;
+            degradedElements++;
+            statistics.elementDegraded();
+            return retrieveStrategy == DescriptionRetrieveStrategy.ALL ||
+                retrieveStrategy == DescriptionRetrieveStrategy.FIRST_PARAGRAPH ?
+                DescriptionRetrieveStrategy.FIRST_SENTENCE : retrieveStrategy;
+        }
 
-            classRule.pop();
+        /**
+         * @param matchNanos time spent on matching of class rule and parsing of Javadoc for build report.
+         */
+        private String extractClassDescription(int ordinal, ParsedComment comment, long matchNanos) {
+            if (classRule == null || !classRule.getOptions().isAnnotateClass() || comment == null)
+                return null;
+            long start = reportTime();
+            DescriptionRetrieveStrategy retrieveStrategy = classRule.getOptions().getDescriptionRetrieveStrategy();
+            if (retrieveStrategy == null) // Use FIRST_SENTENCE strategy by default
+                retrieveStrategy = DescriptionRetrieveStrategy.FIRST_SENTENCE;
+            retrieveStrategy = budgeted(retrieveStrategy);
+            String description = format(getDescription(comment, retrieveStrategy),
+                classRule.getOptions().getNormalize(), classRule.getOptions().getMaxLength(), false);
+            if (description != null) {
+                extracted.put(ordinal, new String[] {description});
+                report("class", classBinaryName, ruleName(classRule.getLine()), retrieveStrategy,
+                    matchNanos + reportTime() - start, description);
+            }
+            return description;
         }
 
         @Override
         public void visitMethodDef(JCTree.JCMethodDecl methodDecl) {
+            int ordinal = declarationOrdinal++;
             boolean currentInsideClass = this.visitClassMembers;
             this.visitClassMembers = false;
             super.visitMethodDef(methodDecl);
             this.visitClassMembers = currentInsideClass;
 
-            ParsedComment comment = ParsedComment.createFromDocComment(
-                docTrees.getDocCommentTree(TreePath.getPath(compilationUnitTree, methodDecl))
-            );
+            // method description followed by parameter descriptions
+            DescribedElement described = replay ? replayedMethod(ordinal, methodDecl) :
+                extractMethodDescriptions(ordinal, methodDecl);
+            if (described != null)
+                describe(described);
+        }
+
+        private DescribedElement replayedMethod(int ordinal, JCTree.JCMethodDecl methodDecl) {
+            String[] descriptions = extracted.get(ordinal);
+            if (descriptions == null)
+                return null;
+            report("method", methodSignature(methodDecl), null, null, 0, descriptions);
+            return DescribedElement.ofMethod(methodDecl, null, null, descriptions, classBinaryName, memberClassKey());
+        }
+
+        private DescribedElement extractMethodDescriptions(int ordinal, JCTree.JCMethodDecl methodDecl) {
+            if (excluded)
+                return null;
+            long start = reportTime();
+            ParsedComment comment = parseComment();
 
             boolean configuredInComment = false;
             MethodRule methodRule = null;
             if (comment != null && comment.getDgenAnnotateTagValue() != null) {
-                methodRule = ConfigurationReader.readMethodRuleFromComment(comment.getDgenAnnotateTagValue());
+                methodRule = getCommentMethodRule(comment.getDgenAnnotateTagValue());
                 configuredInComment = true;
-            } else if (visitClassMembers && classRule.peek() != null) {
-                methodRule = classRule.peek().applyMethod(methodDecl);
+            } else if (visitClassMembers && classRule != null) {
+                ProcessorPhase ruleMatch = ProcessorEvents.ruleMatch().className(classBinaryName)
+                    .member(methodDecl.getName());
+                methodRule = classRule.applyMethod(methodDecl);
+                ruleMatch.strategy(methodRule != null ? methodRule.getOptions().getDescriptionRetrieveStrategy() : null)
+                    .finish();
             }
-
-            if (methodRule != null && comment != null) {
-                DescriptionRetrieveStrategy retrieveStrategy = methodRule.getOptions().getDescriptionRetrieveStrategy();
-                if (retrieveStrategy == null && !configuredInComment && classRule.peek() != null) // get from class rule
-                    retrieveStrategy = classRule.peek().getOptions().getDescriptionRetrieveStrategy();
-                if (retrieveStrategy == null) // use FIRST_SENTENCE by default
-                    retrieveStrategy = DescriptionRetrieveStrategy.FIRST_SENTENCE;
-
-                // add description to method
-                String methodDescription = getDescription(comment, retrieveStrategy);
-                if (methodDescription != null && !containsDescriptionAnnotation(methodDecl.getModifiers()))
-                    appendDescriptionAnnotation(methodDecl.mods, methodDescription);
-
-                // add description to params
-                methodDecl.params.stream()
-                        .filter(param -> !containsDescriptionAnnotation(param.getModifiers()))
-                        .forEach(param -> {
-                            String paramDescription = comment.getParams().get(param.getName().toString());
-                            param.mods = appendDescriptionAnnotation(
-                                    param.mods, param.getName().toString(),
-                                    paramDescription != null ? paramDescription : ""
-                            );
-                        });
+            if (methodRule != null && inheritedDocResolver != null && visitClassMembers && methodDecl.sym != null &&
+                !isOverBudget())
+            {
+                comment = inheritedDocResolver.resolve(methodDecl.sym, comment, inheritedSources);
             }
+            if (methodRule == null || comment == null)
+                return null;
+
+            DescriptionRetrieveStrategy retrieveStrategy = methodRule.getOptions().getDescriptionRetrieveStrategy();
+            if (retrieveStrategy == null && !configuredInComment && classRule != null) // get from class rule
+                retrieveStrategy = classRule.getOptions().getDescriptionRetrieveStrategy();
+            if (retrieveStrategy == null) // use FIRST_SENTENCE by default
+                retrieveStrategy = DescriptionRetrieveStrategy.FIRST_SENTENCE;
+            retrieveStrategy = budgeted(retrieveStrategy);
+
+            Boolean normalize = methodRule.getOptions().getNormalize();
+            Integer maxLength = methodRule.getOptions().getMaxLength();
+            String[] descriptions = new String[methodDecl.params.size() + 1];
+            descriptions[0] = format(getDescription(comment, retrieveStrategy), normalize, maxLength,
+                !configuredInComment);
+            for (int i = 0; i < methodDecl.params.size(); i++) {
+                descriptions[i + 1] = format(comment.getParams().get(methodDecl.params.get(i).getName().toString()),
+                    normalize, maxLength, !configuredInComment);
+            }
+            extracted.put(ordinal, descriptions);
+            report("method", methodSignature(methodDecl),
+                configuredInComment ? ruleName(0) : ruleName(methodRule.getLine()), retrieveStrategy,
+                reportTime() - start, descriptions);
+            return DescribedElement.ofMethod(methodDecl, methodRule, comment, descriptions, classBinaryName,
+                memberClassKey());
         }
 
         @Override
         public void visitVarDef(JCTree.JCVariableDecl varDecl) {
+            int ordinal = declarationOrdinal++;
             boolean currentInsideClass = this.visitClassMembers;
             this.visitClassMembers = false;
             super.visitVarDef(varDecl);
             this.visitClassMembers = currentInsideClass;
 
-            ParsedComment comment = ParsedComment.createFromDocComment(
-                docTrees.getDocCommentTree(TreePath.getPath(compilationUnitTree, varDecl))
-            );
+            DescribedElement described = replay ? replayedField(ordinal, varDecl) :
+                extractFieldDescription(ordinal, varDecl);
+            if (described != null)
+                describe(described);
+        }
+
+        private DescribedElement replayedField(int ordinal, JCTree.JCVariableDecl varDecl) {
+            String description = extractedDescription(ordinal);
+            if (description == null)
+                return null;
+            report("field", fieldSignature(varDecl), null, null, 0, description);
+            return DescribedElement.ofField(varDecl, null, null, description, classBinaryName, memberClassKey());
+        }
+
+        private DescribedElement extractFieldDescription(int ordinal, JCTree.JCVariableDecl varDecl) {
+            if (excluded)
+                return null;
+            long start = reportTime();
+            ParsedComment comment = parseComment();
 
             boolean configuredInComment = false;
             FieldRule fieldRule = null;
             if (comment != null && comment.getDgenAnnotateTagValue() != null) {
-                fieldRule = ConfigurationReader.readFieldRuleFromComment(comment.getDgenAnnotateTagValue());
+                fieldRule = getCommentFieldRule(comment.getDgenAnnotateTagValue());
                 configuredInComment = true;
-            } else if (visitClassMembers && classRule.peek() != null) {
-                fieldRule = classRule.peek().applyField(varDecl);
+            } else if (visitClassMembers && classRule != null) {
+                ProcessorPhase ruleMatch = ProcessorEvents.ruleMatch().className(classBinaryName)
+                    .member(varDecl.getName());
+                fieldRule = classRule.applyField(varDecl);
+                ruleMatch.strategy(fieldRule != null ? fieldRule.getOptions().getDescriptionRetrieveStrategy() : null)
+                    .finish();
             }
+            if (fieldRule == null || comment == null)
+                return null;
+
+            DescriptionRetrieveStrategy retrieveStrategy = fieldRule.getOptions().getDescriptionRetrieveStrategy();
+            if (retrieveStrategy == null && !configuredInComment && classRule != null) // get from class rule
+                retrieveStrategy = classRule.getOptions().getDescriptionRetrieveStrategy();
+            if (retrieveStrategy == null) // use FIRST_SENTENCE by default
+                retrieveStrategy = DescriptionRetrieveStrategy.FIRST_SENTENCE;
+            retrieveStrategy = budgeted(retrieveStrategy);
+
+            String description = format(getDescription(comment, retrieveStrategy),
+                fieldRule.getOptions().getNormalize(), fieldRule.getOptions().getMaxLength(), !configuredInComment);
+            if (description == null)
+                return null;
+            extracted.put(ordinal, new String[] {description});
+            report("field", fieldSignature(varDecl),
+                configuredInComment ? ruleName(0) : ruleName(fieldRule.getLine()), retrieveStrategy,
+                reportTime() - start, description);
+            return DescribedElement.ofField(varDecl, fieldRule, comment, description, classBinaryName,
+                memberClassKey());
+        }
 
-            if (fieldRule != null && comment != null && !containsDescriptionAnnotation(varDecl.getModifiers())) {
-                DescriptionRetrieveStrategy retrieveStrategy = fieldRule.getOptions().getDescriptionRetrieveStrategy();
-                if (retrieveStrategy == null && !configuredInComment && classRule.peek() != null) // get from class rule
-                    retrieveStrategy = classRule.peek().getOptions().getDescriptionRetrieveStrategy();
-                if (retrieveStrategy == null) // use FIRST_SENTENCE by default
-                    retrieveStrategy = DescriptionRetrieveStrategy.FIRST_SENTENCE;
-
-                String description = getDescription(comment, retrieveStrategy);
-                if (description != null)
-                    appendDescriptionAnnotation(varDecl.mods, description);
+        /**
+         * Applies {@code normalize} and {@code maxLength} options to description,
+         * unspecified options are taken from class rule if {@code inherit} is {@code true}.
+         */
+        private String format(String description, Boolean normalize, Integer maxLength, boolean inherit) {
+            if (inherit && classRule != null) {
+                if (normalize == null)
+                    normalize = classRule.getOptions().getNormalize();
+                if (maxLength == null)
+                    maxLength = classRule.getOptions().getMaxLength();
             }
+            return DescriptionFormatter.format(description, Boolean.TRUE.equals(normalize),
+                maxLength != null ? maxLength : 0);
         }
 
-        private boolean containsDescriptionAnnotation(JCTree.JCModifiers modifiers) {
-            for (JCTree.JCAnnotation annotation : modifiers.getAnnotations()) {
-                if (annotation.type.tsym.getQualifiedName().toString().equals(Description.class.getCanonicalName()))
-                    return true;
-            }
-            return false;
+        private long reportTime() {
+            return buildReport != null ? System.nanoTime() : 0;
         }
 
         /**
-         * Appends description annotation to specified modifiers.
+         * Reports described element to build report if it is written.
+         *
+         * @param rule  rule name or {@code null} if descriptions are reused from cache.
+         * @param nanos time spent on extraction of descriptions, 0 if they are reused from cache.
          */
-        private JCTree.JCModifiers appendDescriptionAnnotation(JCTree.JCModifiers current, String name,
-            String description)
+        private void report(String kind, String signature, String rule, DescriptionRetrieveStrategy strategy,
+            long nanos, String... descriptions)
         {
-            List<JCTree.JCExpression> arguments = List.of(
-                treeMaker.Assign(treeMaker.Ident(names.fromString("name")), treeMaker.Literal(name)),
-                treeMaker.Assign(treeMaker.Ident(names.fromString("value")), treeMaker.Literal(description))
-            );
-
-            JCTree.JCAnnotation descriptionAnnotation = treeMaker.Annotation(
-                createExpression(Description.class.getCanonicalName()),
-                arguments
-            );
+            if (buildReport == null)
+                return;
+            int length = 0;
+            for (String description : descriptions) {
+                if (description != null) {
+                    length += description.length();
+                    reportedBytes += description.getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+            reportedElements++;
+            buildReport.element(kind, signature, rule != null ? rule : "cache", strategy, length, nanos);
+        }
 
-            List<JCTree.JCAnnotation> annotations = current.getAnnotations().append(descriptionAnnotation);
-            return treeMaker.Modifiers(current.flags, annotations);
+        // rules of configuration file have positive line numbers
+        private String ruleName(int line) {
+            return line > 0 ? "config:" + line : "javadoc";
         }
 
-        /**
-         * Appends description annotation to specified modifiers.
-         */
-        private void appendDescriptionAnnotation(JCTree.JCModifiers current, String description) {
-            List<JCTree.JCExpression> arguments = List.of(treeMaker.Literal(description));
-            JCTree.JCAnnotation descriptionAnnotation = treeMaker.Annotation(
-                createExpression(Description.class.getCanonicalName()),
-                arguments
-            );
+        private String methodSignature(JCTree.JCMethodDecl methodDecl) {
+            if (buildReport == null)
+                return null;
+            String name = methodDecl.getName().toString();
+            return classBinaryName + "." + (methodDecl.sym == null ? name :
+                ElementKeys.methodKey("", name, methodDecl.sym.type.getParameterTypes(), processingEnv.getTypeUtils()));
+        }
 
-            current.annotations = current.getAnnotations().append(descriptionAnnotation);
+        private String fieldSignature(JCTree.JCVariableDecl varDecl) {
+            return buildReport != null ? classBinaryName + "." + varDecl.getName() : null;
         }
 
         /**
-         * Creates {@link com.sun.tools.javac.tree.JCTree.JCExpression} from {@code qualified name}.
+         * Passes described declaration to all sinks.
          */
-        public JCTree.JCExpression createExpression(String qualifiedName) {
-            String[] expressionParts = qualifiedName.split("\\.");
-
-            JCTree.JCExpression expression = treeMaker.Ident(names.fromString(expressionParts[0]));
-            for (int i = 1; i < expressionParts.length; i++) {
-                expression = treeMaker.Select(expression, names.fromString(expressionParts[i]));
+        private void describe(DescribedElement element) {
+            for (DescriptionSink sink : sinks) {
+                sink.describe(element);
             }
-            return expression;
+        }
+
+        // key of the current class for its members, null for declarations inside methods
+        private String memberClassKey() {
+            return visitClassMembers ? classKey : null;
+        }
+
+        private String extractedDescription(int ordinal) {
+            String[] descriptions = extracted.get(ordinal);
+            return descriptions != null ? descriptions[0] : null;
         }
 
         /**
@@ -431,7 +992,7 @@ public class DgenProcessor extends AbstractProcessor {
          * @throws NullPointerException if current class configuration does not exists.
          */
         private String getDescription(ParsedComment comment, DescriptionRetrieveStrategy retrieveStrategy) {
-            if (classRule.peek() == null)
+            if (classRule == null)
                 return comment.getFirstSentence();
 
             return retrieveStrategy.retrieveDescription(comment);
@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.util.List;
+import java.util.StringJoiner;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+
+/**
+ * Builds keys that identify described elements inside of their top-level class.
+ * <p>
+ * Key format:
+ * <ul>
+ *     <li>top-level class itself: empty string;</li>
+ *     <li>nested class: simple names from top-level class joined with dots, e.g. {@code Inner.Deeper};</li>
+ *     <li>field: {@code [nested class key.]name};</li>
+ *     <li>method: {@code [nested class key.]name(type1,type2)}, where types are erased canonical names
+ *     and constructors are named {@code <init>};</li>
+ *     <li>method parameter: {@code method key#index}.</li>
+ * </ul>
+ */
+final class ElementKeys {
+
+    // Utility class
+    private ElementKeys() {
+    }
+
+    static String classKey(List<String> nestedClassNames) {
+        return String.join(".", nestedClassNames);
+    }
+
+    static String memberKey(String classKey, String memberName) {
+        return classKey.isEmpty() ? memberName : classKey + "." + memberName;
+    }
+
+    static String methodKey(String classKey, String methodName, List<? extends TypeMirror> parameterTypes,
+        Types types)
+    {
+        StringJoiner joiner = new StringJoiner(",", methodName + "(", ")");
+        for (TypeMirror parameterType : parameterTypes) {
+            joiner.add(typeName(types.erasure(parameterType)));
+        }
+        return memberKey(classKey, joiner.toString());
+    }
+
+    static String parameterKey(String methodKey, int index) {
+        return methodKey + "#" + index;
+    }
+
+    private static String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+        case ARRAY:
+            return typeName(((ArrayType) type).getComponentType()) + "[]";
+        case DECLARED:
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        default:
+            return type.toString();
+        }
+    }
+}
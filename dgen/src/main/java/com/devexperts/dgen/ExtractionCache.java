@@ -0,0 +1,204 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of descriptions extracted from Javadoc, one entry per top-level class.
+ * <p>
+ * Extraction results are stored by the ordinal number of the visited declaration, so they can be applied
+ * to the syntax tree of unchanged source without parsing Javadoc and evaluating configuration rules again.
+ * Each entry is identified by a fingerprint of the source text, the configuration, processor options,
+ * {@code @dgen.annotate} tag of the package and the processor code, so entries written by another build
+ * of the processor are never applied.
+ */
+class ExtractionCache {
+
+    // should be incremented on any change of entry format
+    private static final int FORMAT_VERSION = 5;
+    private static final String ENTRY_SUFFIX = ".dgen";
+    private static final byte[] PROCESSOR_DIGEST = processorDigest();
+
+    private final Path directory;
+    private final byte[] configurationDigest;
+
+    /**
+     * @param directory     directory with cache entries.
+     * @param configuration content of configuration file or {@code null} if it is not used.
+     * @param options       processor options affecting extracted descriptions.
+     */
+    ExtractionCache(Path directory, byte[] configuration, String options) {
+        this.directory = directory;
+        MessageDigest digest = newDigest();
+        digest.update(PROCESSOR_DIGEST);
+        if (configuration != null)
+            digest.update(configuration);
+        digest.update(options.getBytes(StandardCharsets.UTF_8));
+        this.configurationDigest = digest.digest();
+    }
+
+    /**
+     * Returns fingerprint of specified source text for the current configuration.
+     *
+     * @param packageRule {@code @dgen.annotate} tag of the package or {@code null} if the package has no tag.
+     */
+    String fingerprint(CharSequence source, String packageRule) {
+        MessageDigest digest = newDigest();
+        digest.update((byte) FORMAT_VERSION);
+        digest.update(configurationDigest);
+        digest.update(source.toString().getBytes(StandardCharsets.UTF_8));
+        if (packageRule != null) {
+            digest.update((byte) 0);
+            digest.update(packageRule.getBytes(StandardCharsets.UTF_8));
+        }
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Loads extracted descriptions of top-level class.
+     *
+     * @return map: declaration ordinal -&gt; extracted descriptions,
+     *     or {@code null} if there is no valid entry with specified fingerprint.
+     */
+    Map<Integer, String[]> load(String topLevelBinaryName, String fingerprint) {
+        Path file = directory.resolve(topLevelBinaryName + ENTRY_SUFFIX);
+        if (!Files.isRegularFile(file))
+            return null;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (!in.readUTF().equals(fingerprint))
+                return null;
+            int size = in.readInt();
+            Map<Integer, String[]> extracted = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                int ordinal = in.readInt();
+                String[] descriptions = new String[in.readInt()];
+                for (int j = 0; j < descriptions.length; j++) {
+                    descriptions[j] = readString(in);
+                }
+                extracted.put(ordinal, descriptions);
+            }
+            return extracted;
+        } catch (IOException e) {
+            return null; // corrupted entry is extracted again
+        }
+    }
+
+    /**
+     * Stores extracted descriptions of top-level class.
+     */
+    void store(String topLevelBinaryName, String fingerprint, Map<Integer, String[]> extracted) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(topLevelBinaryName + ENTRY_SUFFIX);
+        Path tempFile = Files.createTempFile(directory, topLevelBinaryName, ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tempFile))) {
+            out.writeUTF(fingerprint);
+            out.writeInt(extracted.size());
+            for (Map.Entry<Integer, String[]> entry : extracted.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (String description : entry.getValue()) {
+                    writeString(out, description);
+                }
+            }
+        }
+        // concurrent compilations shouldn't see partially written entry
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Returns digest of the processor implementation version and its jar or classes directory.
+     */
+    private static byte[] processorDigest() {
+        MessageDigest digest = newDigest();
+        String version = ExtractionCache.class.getPackage().getImplementationVersion();
+        if (version != null)
+            digest.update(version.getBytes(StandardCharsets.UTF_8));
+        CodeSource codeSource = ExtractionCache.class.getProtectionDomain().getCodeSource();
+        try {
+            Path location = codeSource != null && codeSource.getLocation() != null ?
+                Paths.get(codeSource.getLocation().toURI()) : null;
+            if (location != null && Files.isDirectory(location)) {
+                List<Path> files;
+                try (Stream<Path> stream = Files.walk(location)) {
+                    files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (Path file : files) {
+                    digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            } else if (location != null && Files.isRegularFile(location)) {
+                digest.update(Files.readAllBytes(location));
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // processor code is unknown, so entries are distinguished by the format version only
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 is required on every Java platform
+        }
+    }
+}
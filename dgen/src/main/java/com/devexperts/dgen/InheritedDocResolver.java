@@ -0,0 +1,258 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.TreePath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+
+/**
+ * Completes Javadoc of overriding methods with Javadoc of overridden methods which sources are in the compilation.
+ * <p>
+ * Supertypes are searched as Javadoc tool does: direct superinterfaces in declaration order, then superclass,
+ * recursively. Results are memoized per method symbol, so methods of deep hierarchies are resolved once
+ * per compilation instead of once per implementation, and methods of every supertype are indexed once.
+ */
+class InheritedDocResolver {
+
+    private final DocTrees docTrees;
+    private final Elements elements;
+    private final ProcessingStatistics statistics;
+    private final CommentParser parser;
+
+    // method -> its Javadoc completed with inherited one
+    private final Map<ExecutableElement, Resolution> resolutions = new HashMap<>();
+    private final Map<TypeElement, TypeMethods> typeMethods = new HashMap<>();
+    // type -> true if the type or any of its supertypes has source in the compilation
+    private final Map<TypeElement, Boolean> hasSources = new HashMap<>();
+
+    InheritedDocResolver(DocTrees docTrees, Elements elements, ProcessingStatistics statistics,
+        CommentParser parser)
+    {
+        this.docTrees = docTrees;
+        this.elements = elements;
+        this.statistics = statistics;
+        this.parser = parser;
+    }
+
+    /**
+     * Returns Javadoc of specified method completed with inherited Javadoc.
+     *
+     * @param method  method symbol.
+     * @param comment own Javadoc of method or {@code null} if it has no Javadoc.
+     * @param sources collects compilation units which Javadoc was looked up.
+     * @return completed Javadoc or {@code null} if neither method nor overridden methods have Javadoc.
+     */
+    ParsedComment resolve(ExecutableElement method, ParsedComment comment, Set<CompilationUnitTree> sources) {
+        Resolution resolution = resolutions.get(method);
+        if (resolution == null) {
+            resolution = resolveInherited(method, comment);
+            resolutions.put(method, resolution);
+        }
+        sources.addAll(resolution.sources);
+        return resolution.comment;
+    }
+
+    private Resolution resolveInherited(ExecutableElement method, ParsedComment comment) {
+        List<String> parameterNames = parameterNames(method);
+        boolean returnsValue = method.getReturnType().getKind() != TypeKind.VOID;
+        if (method.getKind() != ElementKind.METHOD || method.getModifiers().contains(Modifier.STATIC) ||
+            method.getModifiers().contains(Modifier.PRIVATE) ||
+            (comment != null && !comment.isIncomplete(parameterNames, returnsValue)))
+        {
+            return new Resolution(comment, Collections.emptySet());
+        }
+        Set<CompilationUnitTree> sources = new HashSet<>();
+        TypeElement owner = (TypeElement) method.getEnclosingElement();
+        ExecutableElement overridden = findOverridden(method, owner, owner, sources);
+        if (overridden == null)
+            return new Resolution(comment, sources);
+        ParsedComment inherited = resolve(overridden, typeMethods(overridden).comment(overridden, sources), sources);
+        return new Resolution(ParsedComment.inherit(comment, inherited, parameterNames, parameterNames(overridden)),
+            sources);
+    }
+
+    /**
+     * Returns the first method overridden by {@code method} in supertypes of {@code type}
+     * which sources are in the compilation.
+     */
+    private ExecutableElement findOverridden(ExecutableElement method, TypeElement owner, TypeElement type,
+        Set<CompilationUnitTree> sources)
+    {
+        for (TypeElement supertype : supertypes(type)) {
+            if (!hasSources(supertype))
+                continue;
+            TypeMethods methods = typeMethods(supertype);
+            if (methods.unit != null)
+                sources.add(methods.unit);
+            for (ExecutableElement candidate : methods.byName(method.getSimpleName())) {
+                if (elements.overrides(method, candidate, owner))
+                    return candidate;
+            }
+            ExecutableElement overridden = findOverridden(method, owner, supertype, sources);
+            if (overridden != null)
+                return overridden;
+        }
+        return null;
+    }
+
+    // direct superinterfaces, then superclass
+    private List<TypeElement> supertypes(TypeElement type) {
+        List<TypeElement> supertypes = new ArrayList<>();
+        for (TypeMirror supertype : type.getInterfaces()) {
+            addType(supertypes, supertype);
+        }
+        addType(supertypes, type.getSuperclass());
+        return supertypes;
+    }
+
+    private void addType(List<TypeElement> supertypes, TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED)
+            supertypes.add((TypeElement) ((DeclaredType) type).asElement());
+    }
+
+    private boolean hasSources(TypeElement type) {
+        Boolean result = hasSources.get(type);
+        if (result == null) {
+            result = typeMethods(type).unit != null;
+            for (TypeElement supertype : supertypes(type)) {
+                result |= hasSources(supertype);
+            }
+            hasSources.put(type, result);
+        }
+        return result;
+    }
+
+    private TypeMethods typeMethods(ExecutableElement method) {
+        return typeMethods((TypeElement) method.getEnclosingElement());
+    }
+
+    private TypeMethods typeMethods(TypeElement type) {
+        TypeMethods methods = typeMethods.get(type);
+        if (methods == null) {
+            methods = new TypeMethods(type);
+            typeMethods.put(type, methods);
+        }
+        return methods;
+    }
+
+    private static List<String> parameterNames(ExecutableElement method) {
+        List<String> names = new ArrayList<>(method.getParameters().size());
+        for (VariableElement parameter : method.getParameters()) {
+            names.add(parameter.getSimpleName().toString());
+        }
+        return names;
+    }
+
+    /**
+     * Parses Javadoc of declaration.
+     */
+    interface CommentParser {
+        /**
+         * @param path       path of the declaration.
+         * @param docComment Javadoc of the declaration or {@code null}.
+         * @param sources    collects other compilation units which the parsed comment depends on.
+         */
+        ParsedComment parse(TreePath path, DocCommentTree docComment, Set<CompilationUnitTree> sources);
+    }
+
+    private static class Resolution {
+        final ParsedComment comment;
+        // compilation units which Javadoc was looked up
+        final Set<CompilationUnitTree> sources;
+
+        Resolution(ParsedComment comment, Set<CompilationUnitTree> sources) {
+            this.comment = comment;
+            this.sources = sources;
+        }
+    }
+
+    /**
+     * Methods of one type with their Javadoc, empty if the type has no source in the compilation.
+     */
+    private class TypeMethods {
+        final CompilationUnitTree unit;
+        private final Map<Name, List<ExecutableElement>> methodsByName = new HashMap<>();
+        private final Map<ExecutableElement, TreePath> paths = new HashMap<>();
+        private final Map<ExecutableElement, DocCommentTree> docComments = new HashMap<>();
+        private final Map<ExecutableElement, Resolution> comments = new HashMap<>();
+
+        TypeMethods(TypeElement type) {
+            TreePath typePath = docTrees.getPath(type);
+            unit = typePath != null ? typePath.getCompilationUnit() : null;
+            if (typePath == null || !(typePath.getLeaf() instanceof ClassTree))
+                return;
+            for (Tree member : ((ClassTree) typePath.getLeaf()).getMembers()) {
+                if (member.getKind() != Tree.Kind.METHOD)
+                    continue;
+                TreePath memberPath = new TreePath(typePath, member);
+                Element element = docTrees.getElement(memberPath);
+                if (!(element instanceof ExecutableElement))
+                    continue;
+                ExecutableElement method = (ExecutableElement) element;
+                methodsByName.computeIfAbsent(method.getSimpleName(), name -> new ArrayList<>()).add(method);
+                statistics.docCommentLookup();
+                DocCommentTree docComment = docTrees.getDocCommentTree(memberPath);
+                if (docComment != null) {
+                    paths.put(method, memberPath);
+                    docComments.put(method, docComment);
+                }
+            }
+        }
+
+        List<ExecutableElement> byName(Name name) {
+            return methodsByName.getOrDefault(name, Collections.emptyList());
+        }
+
+        ParsedComment comment(ExecutableElement method, Set<CompilationUnitTree> sources) {
+            Resolution comment = comments.computeIfAbsent(method, m -> {
+                Set<CompilationUnitTree> commentSources = new HashSet<>();
+                return new Resolution(parser.parse(paths.get(m), docComments.get(m), commentSources),
+                    commentSources);
+            });
+            sources.addAll(comment.sources);
+            return comment.comment;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import com.sun.source.doctree.DocCommentTree;
+import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.InlineTagTree;
+import com.sun.source.doctree.LinkTree;
+import com.sun.source.doctree.LiteralTree;
+import com.sun.source.doctree.ReferenceTree;
+import com.sun.source.doctree.UnknownInlineTagTree;
+import com.sun.source.doctree.ValueTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.DocTreePath;
+import com.sun.source.util.DocTrees;
+import com.sun.source.util.TreePath;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.QualifiedNameable;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Renders inline Javadoc tags to plain text: {@code {@code}} and {@code {@literal}} to their text,
+ * {@code {@link}} and {@code {@linkplain}} to their label or shortened target ({@code Bar.baz()} for
+ * {@code com.foo.Bar#baz()}), {@code {@value}} to the constant value.
+ * <p>
+ * Fully qualified references are resolved once per compilation, other ones once per compilation unit
+ * or, for members of the enclosing class ({@code #member}), once per class. {@code {@inheritDoc}} is kept
+ * to be resolved by {@link InheritedDocResolver}.
+ */
+class InlineTagRenderer {
+
+    private static final String ANNOTATED_TAG = "dgen.annotate";
+
+    private final DocTrees docTrees;
+    private final Elements elements;
+    private final ProcessingStatistics statistics;
+
+    // "<tag name> <signature>" -> rendered fully qualified reference
+    private final Map<String, RenderedReference> qualifiedReferences = new HashMap<>();
+    // compilation unit or enclosing class -> "<tag name> <signature>" -> rendered reference
+    private final Map<Tree, Map<String, RenderedReference>> references = new HashMap<>();
+
+    InlineTagRenderer(DocTrees docTrees, Elements elements, ProcessingStatistics statistics) {
+        this.docTrees = docTrees;
+        this.elements = elements;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Renders inline tag of Javadoc comment.
+     *
+     * @param tag        inline tag.
+     * @param path       path of the documented declaration.
+     * @param docComment Javadoc comment of the declaration.
+     * @param sources    collects other compilation units which constants were rendered.
+     * @return plain text of the tag.
+     */
+    String render(InlineTagTree tag, TreePath path, DocCommentTree docComment, Set<CompilationUnitTree> sources) {
+        switch (tag.getKind()) {
+        case CODE:
+        case LITERAL:
+            return ((LiteralTree) tag).getBody().getBody();
+        case LINK:
+        case LINK_PLAIN:
+            LinkTree link = (LinkTree) tag;
+            if (!link.getLabel().isEmpty())
+                return render(link.getLabel(), path, docComment, sources).trim();
+            return renderReference(link.getReference(), false, path, docComment, sources);
+        case VALUE:
+            ReferenceTree reference = ((ValueTree) tag).getReference();
+            if (reference != null)
+                return renderReference(reference, true, path, docComment, sources);
+            String value = constant(docTrees.getElement(path));
+            return value != null ? value : "";
+        case DOC_ROOT:
+            return "";
+        case UNKNOWN_INLINE_TAG:
+            UnknownInlineTagTree unknownTag = (UnknownInlineTagTree) tag;
+            if (unknownTag.getTagName().equals(ANNOTATED_TAG))
+                return "";
+            return render(unknownTag.getContent(), path, docComment, sources).trim();
+        default:
+            return tag.toString();
+        }
+    }
+
+    private String render(List<? extends DocTree> trees, TreePath path, DocCommentTree docComment,
+        Set<CompilationUnitTree> sources)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (DocTree tree : trees) {
+            builder.append(tree instanceof InlineTagTree ?
+                render((InlineTagTree) tree, path, docComment, sources) : tree.toString());
+        }
+        return builder.toString();
+    }
+
+    private String renderReference(ReferenceTree reference, boolean value, TreePath path, DocCommentTree docComment,
+        Set<CompilationUnitTree> sources)
+    {
+        String signature = reference.getSignature().trim();
+        String key = (value ? "value " : "link ") + signature;
+        // members of the class depend on the class, other names depend on imports of compilation unit
+        Map<String, RenderedReference> scopeReferences = references.computeIfAbsent(
+            signature.startsWith("#") ? enclosingClass(path) : path.getCompilationUnit(), tree -> new HashMap<>());
+        RenderedReference rendered = qualifiedReferences.get(key);
+        if (rendered == null)
+            rendered = scopeReferences.get(key);
+        if (rendered == null) {
+            statistics.referenceResolved();
+            Element element = docTrees.getElement(new DocTreePath(new DocTreePath(path, docComment), reference));
+            String constant = value ? constant(element) : null;
+            if (constant != null) {
+                TreePath constantPath = docTrees.getPath(element);
+                rendered = new RenderedReference(constant,
+                    constantPath != null ? constantPath.getCompilationUnit() : null);
+            } else {
+                rendered = new RenderedReference(name(element, signature), null);
+            }
+            (isQualified(element, signature) ? qualifiedReferences : scopeReferences).put(key, rendered);
+        }
+        if (rendered.unit != null)
+            sources.add(rendered.unit);
+        return rendered.text;
+    }
+
+    private String constant(Element element) {
+        if (!(element instanceof VariableElement))
+            return null;
+        Object value = ((VariableElement) element).getConstantValue();
+        return value != null ? elements.getConstantExpression(value) : null;
+    }
+
+    // simple name of the type followed by the member as it is written in the reference
+    private static String name(Element element, String signature) {
+        int memberIndex = signature.indexOf('#');
+        if (memberIndex == 0)
+            return signature.substring(1);
+        String type = memberIndex > 0 ? signature.substring(0, memberIndex) : signature;
+        String member = memberIndex > 0 ? "." + signature.substring(memberIndex + 1) : "";
+        if (element != null) {
+            Element typeElement = memberIndex > 0 ? element.getEnclosingElement() : element;
+            return typeElement.getSimpleName() + member;
+        }
+        return type.substring(type.lastIndexOf('.') + 1) + member;
+    }
+
+    // true if the type or package of the reference is written with its fully qualified name
+    private static boolean isQualified(Element element, String signature) {
+        int memberIndex = signature.indexOf('#');
+        if (element == null || memberIndex == 0)
+            return false;
+        Element typeElement = memberIndex > 0 ? element.getEnclosingElement() : element;
+        String type = memberIndex > 0 ? signature.substring(0, memberIndex) : signature;
+        return typeElement instanceof QualifiedNameable &&
+            ((QualifiedNameable) typeElement).getQualifiedName().contentEquals(type);
+    }
+
+    private static Tree enclosingClass(TreePath path) {
+        for (TreePath p = path; p != null; p = p.getParentPath()) {
+            if (p.getLeaf() instanceof ClassTree)
+                return p.getLeaf();
+        }
+        return path.getCompilationUnit();
+    }
+
+    private static class RenderedReference {
+        final String text;
+        // other compilation unit which constant was rendered or null
+        final CompilationUnitTree unit;
+
+        RenderedReference(String text, CompilationUnitTree unit) {
+            this.text = text;
+            this.unit = unit;
+        }
+    }
+}
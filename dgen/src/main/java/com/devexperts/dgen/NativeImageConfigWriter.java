@@ -0,0 +1,205 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.StandardLocation;
+
+/**
+ * Collects elements annotated in one top-level class and writes GraalVM native-image reflection configuration
+ * for them, so that descriptions are available in native images.
+ * <p>
+ * Configuration is written to {@code META-INF/native-image/<group>/<artifact>/<top-level class>/reflect-config.json}
+ * resource, one file per top-level class. Generated resources (e.g. sidecar descriptions) are registered
+ * in {@code resource-config.json} in the same directory.
+ */
+class NativeImageConfigWriter {
+
+    private final Map<String, ClassEntry> classes = new LinkedHashMap<>();
+    private final List<String> resources = new ArrayList<>();
+
+    void addClass(String binaryName) {
+        classes.computeIfAbsent(binaryName, ClassEntry::new);
+    }
+
+    void addField(String classBinaryName, String name) {
+        List<String> fields = classes.computeIfAbsent(classBinaryName, ClassEntry::new).fields;
+        if (!fields.contains(name))
+            fields.add(name);
+    }
+
+    void addMethod(String classBinaryName, String name, List<? extends TypeMirror> parameterTypes,
+        Types types, Elements elements)
+    {
+        List<String> parameterTypeNames = new ArrayList<>();
+        for (TypeMirror parameterType : parameterTypes) {
+            parameterTypeNames.add(binaryName(types.erasure(parameterType), elements));
+        }
+        MethodEntry method = new MethodEntry(name, parameterTypeNames);
+        List<MethodEntry> methods = classes.computeIfAbsent(classBinaryName, ClassEntry::new).methods;
+        if (!methods.contains(method))
+            methods.add(method);
+    }
+
+    void addResource(String path) {
+        if (!resources.contains(path))
+            resources.add(path);
+    }
+
+    boolean isEmpty() {
+        return classes.isEmpty() && resources.isEmpty();
+    }
+
+    void write(Filer filer, String groupAndArtifact, TypeElement topLevelClass) throws IOException {
+        String directory = "META-INF/native-image/" + groupAndArtifact + "/" + topLevelClass.getQualifiedName();
+        if (!classes.isEmpty()) {
+            try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                directory + "/reflect-config.json", topLevelClass).openWriter())
+            {
+                writer.write("[\n");
+                for (Iterator<ClassEntry> it = classes.values().iterator(); it.hasNext(); ) {
+                    it.next().write(writer);
+                    writer.write(it.hasNext() ? ",\n" : "\n");
+                }
+                writer.write("]\n");
+            }
+        }
+        if (!resources.isEmpty()) {
+            try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                directory + "/resource-config.json", topLevelClass).openWriter())
+            {
+                writer.write("{\n  \"resources\": {\n    \"includes\": [\n");
+                for (Iterator<String> it = resources.iterator(); it.hasNext(); ) {
+                    writer.write("      { \"pattern\": " + quote("\\Q" + it.next() + "\\E") + " }");
+                    writer.write(it.hasNext() ? ",\n" : "\n");
+                }
+                writer.write("    ]\n  }\n}\n");
+            }
+        }
+    }
+
+    private static String binaryName(TypeMirror type, Elements elements) {
+        switch (type.getKind()) {
+        case ARRAY:
+            return binaryName(((ArrayType) type).getComponentType(), elements) + "[]";
+        case DECLARED:
+            return elements.getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+        default:
+            return type.toString();
+        }
+    }
+
+    // non-ASCII characters are escaped, so content doesn't depend on the encoding of generated files
+    private static String quote(String value) {
+        StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+                result.append('\\').append(c);
+            else if (c < 0x20 || c > 0x7e)
+                result.append(String.format("\\u%04x", (int) c));
+            else
+                result.append(c);
+        }
+        return result.append('"').toString();
+    }
+
+    private static class ClassEntry {
+        final String name;
+        final List<String> fields = new ArrayList<>();
+        final List<MethodEntry> methods = new ArrayList<>();
+
+        ClassEntry(String name) {
+            this.name = name;
+        }
+
+        void write(Writer writer) throws IOException {
+            writer.write("  {\n");
+            writer.write("    \"name\": " + quote(name));
+            if (!fields.isEmpty()) {
+                writer.write(",\n    \"fields\": [\n");
+                for (Iterator<String> it = fields.iterator(); it.hasNext(); ) {
+                    writer.write("      { \"name\": " + quote(it.next()) + " }");
+                    writer.write(it.hasNext() ? ",\n" : "\n");
+                }
+                writer.write("    ]");
+            }
+            if (!methods.isEmpty()) {
+                writer.write(",\n    \"methods\": [\n");
+                for (Iterator<MethodEntry> it = methods.iterator(); it.hasNext(); ) {
+                    it.next().write(writer);
+                    writer.write(it.hasNext() ? ",\n" : "\n");
+                }
+                writer.write("    ]");
+            }
+            writer.write("\n  }");
+        }
+    }
+
+    private static class MethodEntry {
+        final String name;
+        final List<String> parameterTypes;
+
+        MethodEntry(String name, List<String> parameterTypes) {
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+        }
+
+        void write(Writer writer) throws IOException {
+            writer.write("      { \"name\": " + quote(name) + ", \"parameterTypes\": [");
+            for (Iterator<String> it = parameterTypes.iterator(); it.hasNext(); ) {
+                writer.write(quote(it.next()));
+                if (it.hasNext())
+                    writer.write(", ");
+            }
+            writer.write("] }");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof MethodEntry))
+                return false;
+            MethodEntry other = (MethodEntry) o;
+            return name.equals(other.name) && parameterTypes.equals(other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + parameterTypes.hashCode();
+        }
+    }
+}
@@ -23,6 +23,7 @@ package com.devexperts.dgen;
 
 import com.sun.source.doctree.DocCommentTree;
 import com.sun.source.doctree.DocTree;
+import com.sun.source.doctree.InlineTagTree;
 import com.sun.source.doctree.ParamTree;
 import com.sun.source.doctree.ReturnTree;
 import com.sun.source.doctree.TextTree;
@@ -30,25 +31,38 @@ import com.sun.source.doctree.UnknownBlockTagTree;
 import com.sun.source.doctree.UnknownInlineTagTree;
 import com.sun.source.util.DocTreeScanner;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Class that presents Javadoc comment in usable format.
+ * <p>
+ * All texts use {@code \n} line separators regardless of line separators of the source file.
  */
 public class ParsedComment {
 
+    private static final Pattern INHERIT_DOC = Pattern.compile("\\{@inheritDoc\\s*}");
+
     private final String fullComment;
+    // text before block tags, null if it is empty
+    private final String mainDescription;
     private final String firstSentence;
     private final String firstParagraph;
     private final String returnTagValue;
     private final String dgenAnnotateTagValue;
     private final Map<String, String> params;
 
-    private ParsedComment(String fullComment, String firstSentence, String firstParagraph,
+    private ParsedComment(String fullComment, String mainDescription, String firstSentence, String firstParagraph,
         String returnTagValue, String dgenAnnotateTagValue, Map<String, String> params)
     {
         this.fullComment = fullComment;
+        this.mainDescription = mainDescription;
         this.firstSentence = firstSentence;
         this.firstParagraph = firstParagraph;
         this.returnTagValue = returnTagValue;
@@ -61,11 +75,31 @@ public class ParsedComment {
      * @return {@link ParsedComment parsed comment} from {@link DocCommentTree javac comment node}.
      */
     public static ParsedComment createFromDocComment(final DocCommentTree docComment) {
+        return createFromDocComment(docComment, null);
+    }
+
+    /**
+     * @param docComment        {@link DocCommentTree comment node} to be parsed.
+     * @param inlineTagRenderer renders inline tags to plain text or {@code null} if they are kept verbatim.
+     * @return {@link ParsedComment parsed comment} from {@link DocCommentTree javac comment node}.
+     */
+    static ParsedComment createFromDocComment(final DocCommentTree docComment,
+        final Function<InlineTagTree, String> inlineTagRenderer)
+    {
         if (docComment == null)
             return null;
 
         String fullComment = docComment.toString();
-        String firstSentence = docComment.getFirstSentence().size() > 0 ? docComment.getFirstSentence().get(0).toString().trim() : null;
+        String mainDescription = mainDescription(docComment).trim();
+        String firstSentence;
+        if (docComment.getFirstSentence().isEmpty()) {
+            firstSentence = null;
+        } else if (inlineTagRenderer != null) {
+            // inline tags don't end rendered sentence
+            firstSentence = text(docComment.getFirstSentence()).trim();
+        } else {
+            firstSentence = docComment.getFirstSentence().get(0).toString().trim();
+        }
 
         final String[] annotatedTagValue = {null};
         final String[] returnTagValue = {null};
@@ -76,17 +110,28 @@ public class ParsedComment {
             private static final String ANNOTATED_TAG = "dgen.annotate";
             private boolean inFirstParagraph = true;
             private int currentTextBlockNumber = 0;
+            private int inlineTagDepth = 0;
 
             @Override
             public Void scan(DocTree docTree, Void aVoid) {
-                if (!(docTree instanceof TextTree))
+                if (inlineTagRenderer != null && inFirstParagraph && docTree instanceof InlineTagTree) {
+                    // rendered below
+                    firstParagraphBuilder.append(docTree);
+                    inlineTagDepth++;
+                    try {
+                        return super.scan(docTree, aVoid);
+                    } finally {
+                        inlineTagDepth--;
+                    }
+                }
+                if (!(docTree instanceof TextTree) && inlineTagDepth == 0)
                     inFirstParagraph = false;
                 return super.scan(docTree, aVoid);
             }
 
             @Override
             public Void visitReturn(ReturnTree returnTree, Void aVoid) {
-                returnTagValue[0] = returnTree.getDescription().toString();
+                returnTagValue[0] = text(returnTree.getDescription());
                 return super.visitReturn(returnTree, aVoid);
             }
 
@@ -106,13 +151,13 @@ public class ParsedComment {
 
             @Override
             public Void visitParam(ParamTree paramTree, Void aVoid) {
-                params.put(paramTree.getName().toString(), paramTree.getDescription().toString().trim());
+                params.put(paramTree.getName().toString(), text(paramTree.getDescription()).trim());
                 return super.visitParam(paramTree, aVoid);
             }
 
             @Override
             public Void visitText(TextTree textTree, Void aVoid) {
-                if (inFirstParagraph) {
+                if (inFirstParagraph && inlineTagDepth == 0) {
                     currentTextBlockNumber++;
                     if (currentTextBlockNumber == 2) { // We should add space characters between first and second sentences
                         String docCommentAfterFirstSentence = docComment.toString().substring(firstParagraphBuilder.length());
@@ -127,10 +172,160 @@ public class ParsedComment {
         }, null);
 
         String firstParagraph = firstParagraphBuilder.toString().trim();
+
+        if (inlineTagRenderer != null) {
+            Map<String, String> renderedTags = renderInlineTags(docComment, inlineTagRenderer);
+            fullComment = render(fullComment, renderedTags);
+            mainDescription = render(mainDescription, renderedTags).trim();
+            if (firstSentence != null) {
+                firstSentence = render(firstSentence, renderedTags).trim();
+                if (firstSentence.isEmpty())
+                    firstSentence = null;
+            }
+            firstParagraph = render(firstParagraph, renderedTags).trim();
+            returnTagValue[0] = returnTagValue[0] != null ? render(returnTagValue[0], renderedTags) : null;
+            params.replaceAll((name, description) -> render(description, renderedTags).trim());
+        }
         if (firstParagraph.isEmpty())
             firstParagraph = null;
+        params.replaceAll((name, description) -> normalizeLineSeparators(description));
+
+        return new ParsedComment(normalizeLineSeparators(fullComment),
+            mainDescription.isEmpty() ? null : normalizeLineSeparators(mainDescription),
+            normalizeLineSeparators(firstSentence), normalizeLineSeparators(firstParagraph),
+            normalizeLineSeparators(returnTagValue[0]), normalizeLineSeparators(annotatedTagValue[0]), params);
+    }
+
+    /**
+     * Replaces {@code \r\n} and {@code \r} line separators with {@code \n}, so descriptions don't depend on
+     * line separators of source files.
+     */
+    private static String normalizeLineSeparators(String text) {
+        if (text == null || text.indexOf('\r') < 0)
+            return text;
+        return text.replace("\r\n", "\n").replace('\r', '\n');
+    }
+
+    /**
+     * Completes Javadoc of overriding method with Javadoc of overridden one: replaces {@code {@inheritDoc}} tags
+     * and adds missing description, {@code @return} and {@code @param} tags.
+     * Parameters are matched by position, so overriding method may rename them.
+     *
+     * @param comment                 Javadoc of overriding method or {@code null} if it has no Javadoc.
+     * @param inherited               Javadoc of overridden method or {@code null} if it has no Javadoc.
+     * @param parameterNames          parameter names of overriding method.
+     * @param inheritedParameterNames parameter names of overridden method.
+     * @return completed Javadoc, {@code comment} if nothing is inherited.
+     */
+    public static ParsedComment inherit(ParsedComment comment, ParsedComment inherited,
+        List<String> parameterNames, List<String> inheritedParameterNames)
+    {
+        if (inherited == null)
+            return comment;
+        Map<String, String> inheritedParams = new HashMap<>();
+        for (int i = 0; i < parameterNames.size() && i < inheritedParameterNames.size(); i++) {
+            String description = inherited.params.get(inheritedParameterNames.get(i));
+            if (description != null)
+                inheritedParams.put(parameterNames.get(i), description);
+        }
+        if (comment == null) {
+            return new ParsedComment(inherited.fullComment, inherited.mainDescription, inherited.firstSentence,
+                inherited.firstParagraph, inherited.returnTagValue, null, inheritedParams);
+        }
+
+        Map<String, String> params = new HashMap<>(comment.params);
+        for (String name : parameterNames) {
+            params.put(name, inheritDoc(params.get(name), inheritedParams.get(name)));
+        }
+        String fullComment = comment.mainDescription == null && inherited.mainDescription != null ?
+            inherited.mainDescription + "\n" + comment.fullComment :
+            inheritDoc(comment.fullComment, inherited.mainDescription);
+        return new ParsedComment(fullComment,
+            inheritDoc(comment.mainDescription, inherited.mainDescription),
+            inheritDoc(comment.firstSentence, inherited.firstSentence),
+            inheritDoc(comment.firstParagraph, inherited.firstParagraph),
+            inheritDoc(comment.returnTagValue, inherited.returnTagValue),
+            comment.dgenAnnotateTagValue, params);
+    }
+
+    private static String inheritDoc(String text, String inherited) {
+        if (text == null)
+            return inherited;
+        return INHERIT_DOC.matcher(text).replaceAll(inherited != null ? Matcher.quoteReplacement(inherited) : "");
+    }
+
+    /**
+     * Returns {@code true} if Javadoc contains {@code {@inheritDoc}} tag or misses description,
+     * {@code @return} tag of method returning value or any of {@code @param} tags, so it may be completed by
+     * {@link #inherit(ParsedComment, ParsedComment, List, List) inheritance}.
+     */
+    public boolean isIncomplete(List<String> parameterNames, boolean returnsValue) {
+        if (mainDescription == null || (returnsValue && returnTagValue == null) ||
+            INHERIT_DOC.matcher(fullComment).find())
+        {
+            return true;
+        }
+        for (String name : parameterNames) {
+            if (!params.containsKey(name))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Renders outermost inline tags of the comment, nested ones are rendered by their parents.
+     *
+     * @return source text of tag -&gt; its rendered text.
+     */
+    private static Map<String, String> renderInlineTags(DocCommentTree docComment,
+        Function<InlineTagTree, String> inlineTagRenderer)
+    {
+        Map<String, String> renderedTags = new HashMap<>();
+        docComment.accept(new DocTreeScanner<Void, Void>() {
+            @Override
+            public Void scan(DocTree docTree, Void aVoid) {
+                if (!(docTree instanceof InlineTagTree))
+                    return super.scan(docTree, aVoid);
+                renderedTags.computeIfAbsent(docTree.toString(),
+                    tag -> inlineTagRenderer.apply((InlineTagTree) docTree));
+                return null;
+            }
+        }, null);
+        return renderedTags;
+    }
+
+    private static String render(String text, Map<String, String> renderedTags) {
+        // longer tags first, so tags nested into other ones are not replaced separately
+        List<String> tags = new ArrayList<>(renderedTags.keySet());
+        tags.sort(Comparator.comparingInt(String::length).reversed());
+        for (String tag : tags) {
+            text = text.replace(tag, renderedTags.get(tag));
+        }
+        return text;
+    }
+
+    /**
+     * Returns text before block tags, {@code DocCommentTree.getFullBody()} is not available on Java 8.
+     */
+    private static String mainDescription(DocCommentTree docComment) {
+        String firstSentence = text(docComment.getFirstSentence());
+        String body = text(docComment.getBody());
+        if (firstSentence.isEmpty() || body.isEmpty())
+            return firstSentence + body;
+        // whitespace between the first sentence and the body is kept only in the full comment
+        String fullComment = docComment.toString();
+        int bodyIndex = fullComment.startsWith(firstSentence) ? fullComment.indexOf(body, firstSentence.length()) : -1;
+        return firstSentence + (bodyIndex >= 0 ? fullComment.substring(firstSentence.length(), bodyIndex) : " ") +
+            body;
+    }
 
-        return new ParsedComment(fullComment, firstSentence, firstParagraph, returnTagValue[0], annotatedTagValue[0], params);
+    // List.toString() of javac separates elements with commas
+    private static String text(List<? extends DocTree> trees) {
+        StringBuilder builder = new StringBuilder();
+        for (DocTree tree : trees) {
+            builder.append(tree);
+        }
+        return builder.toString();
     }
 
     /**
@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+/**
+ * Counters of work done by {@link DgenProcessor} during one compilation.
+ * <p>
+ * Counters are deterministic, so they are used to check that processing cost grows linearly with
+ * the size of compilation units.
+ */
+public class ProcessingStatistics {
+
+    private long docCommentLookups;
+    private long packageRuleLookups;
+    private long visitedNodes;
+    private long predicateEvaluations;
+    private long referenceResolutions;
+    private long degradedElements;
+
+    /**
+     * @return number of Javadoc comment lookups.
+     */
+    public long getDocCommentLookups() {
+        return docCommentLookups;
+    }
+
+    /**
+     * @return number of lookups of {@code @dgen.annotate} tags in Javadoc of packages.
+     */
+    public long getPackageRuleLookups() {
+        return packageRuleLookups;
+    }
+
+    /**
+     * @return number of tree nodes visited by traversal and by construction of tree paths.
+     */
+    public long getVisitedNodes() {
+        return visitedNodes;
+    }
+
+    /**
+     * @return number of evaluations of configuration predicates including components of composite ones.
+     */
+    public long getPredicateEvaluations() {
+        return predicateEvaluations;
+    }
+
+    /**
+     * @return number of resolutions of references in inline Javadoc tags.
+     */
+    public long getReferenceResolutions() {
+        return referenceResolutions;
+    }
+
+    /**
+     * @return number of elements which descriptions are extracted with reduced fidelity because latency budget
+     * is exceeded, unlike other counters it depends on processing time.
+     */
+    public long getDegradedElements() {
+        return degradedElements;
+    }
+
+    void docCommentLookup() {
+        docCommentLookups++;
+    }
+
+    void packageRuleLookup() {
+        packageRuleLookups++;
+    }
+
+    void nodeVisited() {
+        visitedNodes++;
+    }
+
+    void predicateEvaluated() {
+        predicateEvaluations++;
+    }
+
+    void referenceResolved() {
+        referenceResolutions++;
+    }
+
+    void elementDegraded() {
+        degradedElements++;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessingStatistics{" +
+            "docCommentLookups=" + docCommentLookups +
+            ", packageRuleLookups=" + packageRuleLookups +
+            ", visitedNodes=" + visitedNodes +
+            ", predicateEvaluations=" + predicateEvaluations +
+            ", referenceResolutions=" + referenceResolutions +
+            "}";
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+/**
+ * Starts phases of {@link DgenProcessor} work reported as JDK Flight Recorder events.
+ * <p>
+ * This class is used on Java 8 and records nothing. On Java 11 and later it is replaced by the class
+ * from {@code META-INF/versions/11} of the multi-release jar which emits {@code com.devexperts.dgen.*} events.
+ */
+final class ProcessorEvents {
+
+    private ProcessorEvents() {
+    }
+
+    static ProcessorPhase configurationLoad() {
+        return ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase compilationUnit() {
+        return ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase docCommentParse() {
+        return ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase ruleMatch() {
+        return ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase annotationInjection() {
+        return ProcessorPhase.NONE;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+/**
+ * Phase of {@link DgenProcessor} work which is reported to JDK Flight Recorder by {@link ProcessorEvents}.
+ * <p>
+ * Phase starts when it is created and is recorded by {@link #finish()}, unspecified attributes are left empty.
+ * Disabled phases are {@link #NONE}, so attributes should be cheap to pass.
+ */
+interface ProcessorPhase {
+
+    /**
+     * Phase which records nothing.
+     */
+    ProcessorPhase NONE = new ProcessorPhase() {
+        @Override
+        public ProcessorPhase className(String className) {
+            return this;
+        }
+
+        @Override
+        public ProcessorPhase member(CharSequence member) {
+            return this;
+        }
+
+        @Override
+        public ProcessorPhase memberCount(int memberCount) {
+            return this;
+        }
+
+        @Override
+        public ProcessorPhase strategy(Object strategy) {
+            return this;
+        }
+
+        @Override
+        public void finish() {
+        }
+    };
+
+    /**
+     * @param className binary name of the processed class.
+     */
+    ProcessorPhase className(String className);
+
+    /**
+     * @param member name of the processed member of the class, it is converted to string only if it is recorded.
+     */
+    ProcessorPhase member(CharSequence member);
+
+    /**
+     * @param memberCount number of processed members, rules or annotations depending on the phase.
+     */
+    ProcessorPhase memberCount(int memberCount);
+
+    /**
+     * @param strategy chosen description retrieve strategy or {@code null}.
+     */
+    ProcessorPhase strategy(Object strategy);
+
+    void finish();
+}
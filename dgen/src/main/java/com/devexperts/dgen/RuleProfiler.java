@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import com.devexperts.dgen.configuration.ClassRule;
+import com.devexperts.dgen.configuration.Configuration;
+import com.devexperts.dgen.configuration.FieldRule;
+import com.devexperts.dgen.configuration.MethodRule;
+import com.devexperts.dgen.configuration.predicates.TreePredicate;
+import com.devexperts.dgen.configuration.predicates.TreePredicates;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * Collects evaluations, matches and time spent by every rule of configuration file and by its predicates
+ * during one compilation and writes them as a report sorted by the time.
+ */
+class RuleProfiler {
+
+    private static final Comparator<Profile> BY_NANOS =
+        Comparator.comparingLong((Profile profile) -> profile.nanos).reversed();
+
+    // name of configuration file in the report
+    private final String configurationName;
+    private final List<RuleProfile> rules = new ArrayList<>();
+
+    RuleProfiler(String configurationName) {
+        this.configurationName = configurationName;
+    }
+
+    /**
+     * Returns configuration where all predicates are mapped by {@code binder} and profiled.
+     */
+    Configuration profile(Configuration configuration, UnaryOperator<TreePredicate> binder) {
+        List<ClassRule> classRules = new ArrayList<>();
+        for (ClassRule classRule : configuration.getClassRules()) {
+            List<MethodRule> methodRules = new ArrayList<>();
+            for (MethodRule methodRule : classRule.getMethodRules()) {
+                methodRules.add(new MethodRule(profile("method", methodRule.getLine(), methodRule.getPredicate(),
+                    binder), methodRule.getOptions(), methodRule.getLine()));
+            }
+            List<FieldRule> fieldRules = new ArrayList<>();
+            for (FieldRule fieldRule : classRule.getFieldRules()) {
+                fieldRules.add(new FieldRule(profile("field", fieldRule.getLine(), fieldRule.getPredicate(),
+                    binder), fieldRule.getOptions(), fieldRule.getLine()));
+            }
+            classRules.add(new ClassRule(profile("class", classRule.getLine(), classRule.getClassPredicate(), binder),
+                classRule.getOptions(), methodRules, fieldRules, classRule.getLine()));
+        }
+        return new Configuration(classRules);
+    }
+
+    private TreePredicate profile(String kind, int line, TreePredicate predicate,
+        UnaryOperator<TreePredicate> binder)
+    {
+        List<Profile> profiles = new ArrayList<>();
+        TreePredicate profiled = predicate.map(component -> {
+            Profile profile = new Profile(component.toString());
+            profiles.add(profile);
+            return TreePredicates.profiling(binder.apply(component), profile);
+        });
+        // components are mapped before their composite, so the last one is the whole predicate of the rule
+        Profile whole = profiles.get(profiles.size() - 1);
+        rules.add(new RuleProfile(kind, line, whole, profiles.size() > 1 ? profiles.subList(0, profiles.size() - 1) :
+            profiles));
+        return profiled;
+    }
+
+    /**
+     * Writes report: rules sorted by the time spent, each followed by its predicates sorted the same way.
+     */
+    void write(Path file) throws IOException {
+        List<RuleProfile> sortedRules = new ArrayList<>(rules);
+        sortedRules.sort(Comparator.comparing((RuleProfile rule) -> rule.whole, BY_NANOS));
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.format(Locale.ROOT, "%14s %12s %12s  %s\n",
+                "nanos", "evaluations", "matches", "rule"));
+            for (RuleProfile rule : sortedRules) {
+                writer.write(rule.whole.format(configurationName + ":" + rule.line + " " + rule.kind + " rule"));
+                List<Profile> predicates = new ArrayList<>(rule.predicates);
+                predicates.sort(BY_NANOS);
+                for (Profile predicate : predicates) {
+                    writer.write(predicate.format("    " + predicate.text));
+                }
+            }
+        }
+    }
+
+    private static class Profile implements TreePredicates.EvaluationListener {
+        final String text;
+        long evaluations;
+        long matches;
+        long nanos;
+
+        Profile(String text) {
+            this.text = text.replaceAll("\\s+", " ");
+        }
+
+        @Override
+        public void evaluated(boolean result, long nanos) {
+            evaluations++;
+            if (result)
+                matches++;
+            this.nanos += nanos;
+        }
+
+        String format(String title) {
+            return String.format(Locale.ROOT, "%14d %12d %12d  %s\n", nanos, evaluations, matches, title);
+        }
+    }
+
+    private static class RuleProfile {
+        final String kind;
+        final int line;
+        final Profile whole;
+        // components of the rule predicate or the whole predicate if it has no components
+        final List<Profile> predicates;
+
+        RuleProfile(String kind, int line, Profile whole, List<Profile> predicates) {
+            this.kind = kind;
+            this.line = line;
+            this.whole = whole;
+            this.predicates = predicates;
+        }
+    }
+}
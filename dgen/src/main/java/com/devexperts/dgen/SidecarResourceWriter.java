@@ -0,0 +1,122 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.StandardLocation;
+
+/**
+ * Collects generated descriptions of one top-level class and writes them to sidecar resource
+ * {@code META-INF/dgen/<top-level class binary name>.properties}.
+ * <p>
+ * In sidecar mode annotations contain only stable {@code dgen:<element key>} references
+ * (see {@link ElementKeys}), so changes of Javadoc text don't change class files.
+ */
+class SidecarResourceWriter {
+
+    static final String KEY_PREFIX = "dgen:";
+
+    // sorted for reproducible output
+    private final Map<String, String> descriptions = new TreeMap<>();
+
+    static String resourcePath(String topLevelBinaryName) {
+        return "META-INF/dgen/" + topLevelBinaryName + ".properties";
+    }
+
+    /**
+     * Adds description for element with specified {@link ElementKeys key}.
+     *
+     * @return reference to description to be used as annotation value.
+     */
+    String add(String key, String description) {
+        descriptions.putIfAbsent(key, description);
+        return KEY_PREFIX + key;
+    }
+
+    boolean isEmpty() {
+        return descriptions.isEmpty();
+    }
+
+    void write(Filer filer, Elements elements, TypeElement topLevelClass) throws IOException {
+        String path = resourcePath(elements.getBinaryName(topLevelClass).toString());
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", path, topLevelClass)
+            .openWriter())
+        {
+            writer.write("# Generated by dgen from Javadoc of " + topLevelClass.getQualifiedName() + "\n");
+            for (Map.Entry<String, String> entry : descriptions.entrySet()) {
+                writer.write(escape(entry.getKey(), true));
+                writer.write('=');
+                writer.write(escape(entry.getValue(), false));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Escapes string as {@link java.util.Properties} key or value, non-ASCII characters are escaped.
+     */
+    private static String escape(String s, boolean key) {
+        StringBuilder builder = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case ' ':
+                if (key || i == 0)
+                    builder.append('\\');
+                builder.append(' ');
+                break;
+            case '\\':
+            case '=':
+            case ':':
+            case '#':
+            case '!':
+                builder.append('\\').append(c);
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\f':
+                builder.append("\\f");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e) {
+                    builder.append(String.format("\\u%04x", (int) c));
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder.toString();
+    }
+}
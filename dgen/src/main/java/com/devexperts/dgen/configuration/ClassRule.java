@@ -24,25 +24,39 @@ package com.devexperts.dgen.configuration;
 import com.devexperts.dgen.configuration.predicates.TreePredicate;
 import com.sun.tools.javac.tree.JCTree;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import javax.annotation.concurrent.Immutable;
 
 /**
  * Class rule contains options, predicate for class, rules for fields and methods.
  */
+@Immutable
 public class ClassRule {
 
     private final TreePredicate classPredicate;
     private final ClassRuleOptions options;
     private final List<MethodRule> methodRules;
     private final List<FieldRule> fieldRules;
+    // line of the rule in configuration file or 0 if it is configured in Javadoc
+    private final int line;
 
     public ClassRule(TreePredicate classPredicate, ClassRuleOptions options,
         List<MethodRule> methodRules, List<FieldRule> fieldRules)
+    {
+        this(classPredicate, options, methodRules, fieldRules, 0);
+    }
+
+    public ClassRule(TreePredicate classPredicate, ClassRuleOptions options,
+        List<MethodRule> methodRules, List<FieldRule> fieldRules, int line)
     {
         this.classPredicate = classPredicate;
         this.options = options;
-        this.methodRules = methodRules;
-        this.fieldRules = fieldRules;
+        this.methodRules = Collections.unmodifiableList(new ArrayList<>(methodRules));
+        this.fieldRules = Collections.unmodifiableList(new ArrayList<>(fieldRules));
+        this.line = line;
     }
 
     public MethodRule applyMethod(JCTree.JCMethodDecl methodDecl) {
@@ -71,6 +85,36 @@ public class ClassRule {
         return options;
     }
 
+    public List<MethodRule> getMethodRules() {
+        return methodRules;
+    }
+
+    public List<FieldRule> getFieldRules() {
+        return fieldRules;
+    }
+
+    /**
+     * @return line of the rule in configuration file or 0 if it is configured in Javadoc.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return rule with the same options and all predicates mapped by {@link TreePredicate#map(UnaryOperator)}.
+     */
+    public ClassRule mapPredicates(UnaryOperator<TreePredicate> mapper) {
+        List<MethodRule> mappedMethodRules = new ArrayList<>(methodRules.size());
+        for (MethodRule methodRule : methodRules) {
+            mappedMethodRules.add(methodRule.mapPredicates(mapper));
+        }
+        List<FieldRule> mappedFieldRules = new ArrayList<>(fieldRules.size());
+        for (FieldRule fieldRule : fieldRules) {
+            mappedFieldRules.add(fieldRule.mapPredicates(mapper));
+        }
+        return new ClassRule(classPredicate.map(mapper), options, mappedMethodRules, mappedFieldRules, line);
+    }
+
 
     @Override
     public String toString() {
@@ -21,19 +21,40 @@
  */
 package com.devexperts.dgen.configuration;
 
+import javax.annotation.concurrent.Immutable;
+
 /**
  * Options for {@link ClassRule class rule}.
  */
+@Immutable
 public class ClassRuleOptions {
 
     public static final ClassRuleOptions EMPTY = new ClassRuleOptions(null, true);
 
     private final DescriptionRetrieveStrategy descriptionRetrieveStrategy;
     private final boolean annotateClass;
+    private final boolean exclude;
+    private final Boolean normalize;
+    private final Integer maxLength;
 
     public ClassRuleOptions(DescriptionRetrieveStrategy descriptionRetrieveStrategy, boolean annotateClass) {
+        this(descriptionRetrieveStrategy, annotateClass, null, null);
+    }
+
+    public ClassRuleOptions(DescriptionRetrieveStrategy descriptionRetrieveStrategy, boolean annotateClass,
+        Boolean normalize, Integer maxLength)
+    {
+        this(descriptionRetrieveStrategy, annotateClass, false, normalize, maxLength);
+    }
+
+    public ClassRuleOptions(DescriptionRetrieveStrategy descriptionRetrieveStrategy, boolean annotateClass,
+        boolean exclude, Boolean normalize, Integer maxLength)
+    {
         this.descriptionRetrieveStrategy = descriptionRetrieveStrategy;
         this.annotateClass = annotateClass;
+        this.exclude = exclude;
+        this.normalize = normalize;
+        this.maxLength = maxLength;
     }
 
     public DescriptionRetrieveStrategy getDescriptionRetrieveStrategy() {
@@ -43,4 +64,27 @@ public class ClassRuleOptions {
     public boolean isAnnotateClass() {
         return annotateClass;
     }
+
+    /**
+     * @return {@code true} if matched classes and their nested classes should be skipped without parsing Javadoc
+     * of their members.
+     */
+    public boolean isExclude() {
+        return exclude;
+    }
+
+    /**
+     * @return {@code true} if descriptions should be normalized
+     * (see {@link com.devexperts.dgen.DescriptionFormatter#normalize(String)}), or {@code null} if not specified.
+     */
+    public Boolean getNormalize() {
+        return normalize;
+    }
+
+    /**
+     * @return maximal length of descriptions in characters or {@code null} if not specified.
+     */
+    public Integer getMaxLength() {
+        return maxLength;
+    }
 }
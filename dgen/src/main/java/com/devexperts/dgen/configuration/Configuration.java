@@ -21,21 +21,35 @@
  */
 package com.devexperts.dgen.configuration;
 
+import com.devexperts.dgen.configuration.predicates.TreePredicate;
 import com.sun.tools.javac.tree.JCTree.JCClassDecl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import javax.annotation.concurrent.Immutable;
 
 /**
  * Describes configuration file for dgen.
  * <p>
  * Contains list of class rules which should be used in natural order.
+ * Configuration is immutable, so the same instance is shared by concurrent compilations.
  */
+@Immutable
 public class Configuration {
 
     private final List<ClassRule> classRules;
 
     public Configuration(List<ClassRule> classRules) {
-        this.classRules = classRules;
+        this.classRules = Collections.unmodifiableList(new ArrayList<>(classRules));
+    }
+
+    /**
+     * @return class rules in order of application.
+     */
+    public List<ClassRule> getClassRules() {
+        return classRules;
     }
 
     /**
@@ -52,6 +66,17 @@ public class Configuration {
         return null;
     }
 
+    /**
+     * @return configuration with all predicates mapped by {@link TreePredicate#map(UnaryOperator)}.
+     */
+    public Configuration mapPredicates(UnaryOperator<TreePredicate> mapper) {
+        List<ClassRule> mappedClassRules = new ArrayList<>(classRules.size());
+        for (ClassRule classRule : classRules) {
+            mappedClassRules.add(classRule.mapPredicates(mapper));
+        }
+        return new Configuration(mappedClassRules);
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
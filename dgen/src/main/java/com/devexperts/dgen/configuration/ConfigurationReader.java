@@ -23,6 +23,7 @@ package com.devexperts.dgen.configuration;
 
 import com.devexperts.dgen.configuration.predicates.AccessModifierPredicate;
 import com.devexperts.dgen.configuration.predicates.ExtendsOrImplementsPredicate;
+import com.devexperts.dgen.configuration.predicates.HasAnnotationPredicate;
 import com.devexperts.dgen.configuration.predicates.IsStaticPredicate;
 import com.devexperts.dgen.configuration.predicates.NamePredicate;
 import com.devexperts.dgen.configuration.predicates.TreePredicate;
@@ -30,6 +31,7 @@ import com.devexperts.dgen.configuration.predicates.TreePredicates;
 import org.antlr.v4.runtime.ANTLRFileStream;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
@@ -58,7 +60,22 @@ public final class ConfigurationReader {
      * @throws IllegalStateException if any problems occurred during configuration parsing.
      */
     public static Configuration readConfigurationFromFile(String filename) throws IOException {
-        DgenConfigurationLexer lexer = new DgenConfigurationLexer(new ANTLRFileStream(filename));
+        return readConfiguration(new ANTLRFileStream(filename));
+    }
+
+    /**
+     * Read configuration from specified text.
+     *
+     * @param content configuration text.
+     * @return read configuration.
+     * @throws IllegalStateException if any problems occurred during configuration parsing.
+     */
+    public static Configuration readConfiguration(String content) {
+        return readConfiguration(new ANTLRInputStream(content));
+    }
+
+    private static Configuration readConfiguration(CharStream input) {
+        DgenConfigurationLexer lexer = new DgenConfigurationLexer(input);
         DgenConfigurationParser parser = new DgenConfigurationParser(new CommonTokenStream(lexer));
 
         parser.removeErrorListeners();
@@ -111,11 +128,12 @@ public final class ConfigurationReader {
         parser.addParseListener(new DgenConfigurationBaseListener() {
             @Override
             public void exitClassCommentConfiguration(DgenConfigurationParser.ClassCommentConfigurationContext ctx) {
+                // rules configured in Javadoc have no line in configuration file
                 methodRules.addAll(ctx.methodRule().stream()
-                        .map(ConfigurationReader::parseMethodRule).collect(Collectors.toList()));
+                        .map(rule -> parseMethodRule(rule, 0)).collect(Collectors.toList()));
 
                 fieldRules.addAll(ctx.fieldRule().stream()
-                        .map(ConfigurationReader::parseFieldRule).collect(Collectors.toList()));
+                        .map(rule -> parseFieldRule(rule, 0)).collect(Collectors.toList()));
 
                 if (ctx.classRuleOptions().size() > 1)
                     throw new IllegalStateException("Two or more options blocks are founded:\n" + ctx.getText());
@@ -203,7 +221,8 @@ public final class ConfigurationReader {
         if (!ctx.descriptionRetrieveStrategy().isEmpty())
             retrieveStrategy =  parseDescriptionRetrieveStrategy(ctx.descriptionRetrieveStrategy().get(0));
 
-        return new MethodRuleOptions(retrieveStrategy);
+        return new MethodRuleOptions(retrieveStrategy, parseNormalize(ctx.normalize()),
+            parseMaxLength(ctx.maxLength()));
     }
 
     private static FieldRuleOptions parseFieldRuleOptions(DgenConfigurationParser.FieldRuleOptionsContext ctx) {
@@ -213,7 +232,8 @@ public final class ConfigurationReader {
         if (!ctx.descriptionRetrieveStrategy().isEmpty())
             retrieveStrategy =  parseDescriptionRetrieveStrategy(ctx.descriptionRetrieveStrategy().get(0));
 
-        return new FieldRuleOptions(retrieveStrategy);
+        return new FieldRuleOptions(retrieveStrategy, parseNormalize(ctx.normalize()),
+            parseMaxLength(ctx.maxLength()));
     }
 
     private static ClassRuleOptions parseClassRuleOptions(DgenConfigurationParser.ClassRuleOptionsContext ctx) {
@@ -230,7 +250,35 @@ public final class ConfigurationReader {
         if (!ctx.annotateClass().isEmpty() && ctx.annotateClass().get(0).FALSE() != null)
             annotateClass = false;
 
-        return new ClassRuleOptions(retrieveStrategy, annotateClass);
+        boolean exclude = false;
+        if (ctx.exclude().size() > 1)
+            throw new IllegalStateException("Two or more same configurations: " + ctx.getText());
+        if (!ctx.exclude().isEmpty() && ctx.exclude().get(0).TRUE() != null)
+            exclude = true;
+
+        return new ClassRuleOptions(retrieveStrategy, annotateClass, exclude, parseNormalize(ctx.normalize()),
+            parseMaxLength(ctx.maxLength()));
+    }
+
+    private static Boolean parseNormalize(List<DgenConfigurationParser.NormalizeContext> ctx) {
+        if (ctx.size() > 1)
+            throw new IllegalStateException("Two or more same configurations: " + ctx.get(1).getText());
+        return ctx.isEmpty() ? null : ctx.get(0).TRUE() != null;
+    }
+
+    private static Integer parseMaxLength(List<DgenConfigurationParser.MaxLengthContext> ctx) {
+        if (ctx.size() > 1)
+            throw new IllegalStateException("Two or more same configurations: " + ctx.get(1).getText());
+        if (ctx.isEmpty())
+            return null;
+        try {
+            int maxLength = Integer.parseInt(ctx.get(0).NUMBER().getText());
+            if (maxLength > 0)
+                return maxLength;
+        } catch (NumberFormatException ignore) {
+            // too large
+        }
+        throw new IllegalStateException("Invalid maxLength, positive integer expected: " + ctx.get(0).getText());
     }
 
     private static DescriptionRetrieveStrategy parseDescriptionRetrieveStrategy(DgenConfigurationParser.DescriptionRetrieveStrategyContext ctx) {
@@ -251,10 +299,10 @@ public final class ConfigurationReader {
                 .map(ConfigurationReader::parsePredicate).collect(Collectors.toList());
 
         List<MethodRule> methodRules = ctx.methodRule().stream()
-                .map(ConfigurationReader::parseMethodRule).collect(Collectors.toList());
+                .map(rule -> parseMethodRule(rule, rule.getStart().getLine())).collect(Collectors.toList());
 
         List<FieldRule> fieldRules = ctx.fieldRule().stream()
-                .map(ConfigurationReader::parseFieldRule).collect(Collectors.toList());
+                .map(rule -> parseFieldRule(rule, rule.getStart().getLine())).collect(Collectors.toList());
 
         ClassRuleOptions options = ClassRuleOptions.EMPTY;
         if (ctx.classRuleOptions().size() > 1)
@@ -262,10 +310,11 @@ public final class ConfigurationReader {
         if (!ctx.classRuleOptions().isEmpty())
             options = parseClassRuleOptions(ctx.classRuleOptions().get(0));
 
-        return new ClassRule(TreePredicates.and(predicates), options, methodRules, fieldRules);
+        return new ClassRule(TreePredicates.optimize(TreePredicates.and(predicates)), options, methodRules,
+            fieldRules, ctx.getStart().getLine());
     }
 
-    private static MethodRule parseMethodRule(DgenConfigurationParser.MethodRuleContext ctx) {
+    private static MethodRule parseMethodRule(DgenConfigurationParser.MethodRuleContext ctx, int line) {
         List<TreePredicate> predicates = ctx.predicate()
                 .stream().map(ConfigurationReader::parsePredicate).collect(Collectors.toList());
 
@@ -275,10 +324,10 @@ public final class ConfigurationReader {
         if (!ctx.methodRuleOptions().isEmpty())
             options = parseMethodRuleOptions(ctx.methodRuleOptions().get(0));
 
-        return new MethodRule(TreePredicates.and(predicates), options);
+        return new MethodRule(TreePredicates.optimize(TreePredicates.and(predicates)), options, line);
     }
 
-    private static FieldRule parseFieldRule(DgenConfigurationParser.FieldRuleContext ctx) {
+    private static FieldRule parseFieldRule(DgenConfigurationParser.FieldRuleContext ctx, int line) {
         List<TreePredicate> predicates = ctx.predicate()
                 .stream().map(ConfigurationReader::parsePredicate).collect(Collectors.toList());
 
@@ -288,7 +337,11 @@ public final class ConfigurationReader {
         if (!ctx.fieldRuleOptions().isEmpty())
             options = parseFieldRuleOptions(ctx.fieldRuleOptions().get(0));
 
-        return new FieldRule(TreePredicates.and(predicates), options);
+        return new FieldRule(TreePredicates.optimize(TreePredicates.and(predicates)), options, line);
+    }
+
+    private static List<TreePredicate> parsePredicates(List<DgenConfigurationParser.PredicateContext> ctx) {
+        return ctx.stream().map(ConfigurationReader::parsePredicate).collect(Collectors.toList());
     }
 
     private static TreePredicate parsePredicate(DgenConfigurationParser.PredicateContext ctx) {
@@ -304,6 +357,22 @@ public final class ConfigurationReader {
         if (ctx.extendsOrImplementsPredicate() != null)
             return parseInstanceOfPredicate(ctx.extendsOrImplementsPredicate());
 
+        if (ctx.hasAnnotationPredicate() != null)
+            return parseHasAnnotationPredicate(ctx.hasAnnotationPredicate());
+
+        if (ctx.notPredicate() != null) {
+            DgenConfigurationParser.NotPredicateContext notContext = ctx.notPredicate();
+            if (notContext.LBRACK() == null)
+                return TreePredicates.not(parsePredicate(notContext.predicate(0)));
+            return TreePredicates.not(TreePredicates.and(parsePredicates(notContext.predicate())));
+        }
+
+        if (ctx.anyPredicate() != null)
+            return TreePredicates.or(parsePredicates(ctx.anyPredicate().predicate()));
+
+        if (ctx.allPredicate() != null)
+            return TreePredicates.and(parsePredicates(ctx.allPredicate().predicate()));
+
         throw new IllegalStateException("Unknown predicate: " + ctx.getText());
     }
 
@@ -343,4 +412,12 @@ public final class ConfigurationReader {
         String nameWithQuotes = ctx.name().getText();
         return new ExtendsOrImplementsPredicate(nameWithQuotes.substring(1, nameWithQuotes.length() - 1));
     }
+
+    private static TreePredicate parseHasAnnotationPredicate(
+        DgenConfigurationParser.HasAnnotationPredicateContext ctx)
+    {
+        String nameWithQuotes = ctx.name().getText();
+        return new HasAnnotationPredicate(nameWithQuotes.substring(1, nameWithQuotes.length() - 1),
+            ctx.ASSIGN() != null);
+    }
 }
@@ -23,17 +23,28 @@ package com.devexperts.dgen.configuration;
 
 import com.devexperts.dgen.configuration.predicates.TreePredicate;
 
+import java.util.function.UnaryOperator;
+import javax.annotation.concurrent.Immutable;
+
 /**
  * Field rule contains predicates and options.
  */
+@Immutable
 public class FieldRule {
 
     private final TreePredicate predicate;
     private final FieldRuleOptions options;
+    // line of the rule in configuration file or 0 if it is configured in Javadoc
+    private final int line;
 
     public FieldRule(TreePredicate predicate, FieldRuleOptions options) {
+        this(predicate, options, 0);
+    }
+
+    public FieldRule(TreePredicate predicate, FieldRuleOptions options, int line) {
         this.predicate = predicate;
         this.options = options;
+        this.line = line;
     }
 
     public TreePredicate getPredicate() {
@@ -43,4 +54,18 @@ public class FieldRule {
     public FieldRuleOptions getOptions() {
         return options;
     }
+
+    /**
+     * @return line of the rule in configuration file or 0 if it is configured in Javadoc.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return rule with the same options and predicate mapped by {@link TreePredicate#map(UnaryOperator)}.
+     */
+    public FieldRule mapPredicates(UnaryOperator<TreePredicate> mapper) {
+        return new FieldRule(predicate.map(mapper), options, line);
+    }
 }
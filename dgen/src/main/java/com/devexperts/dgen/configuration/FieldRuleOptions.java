@@ -21,20 +21,48 @@
  */
 package com.devexperts.dgen.configuration;
 
+import javax.annotation.concurrent.Immutable;
+
 /**
  * Options for {@link FieldRule field rule}.
  */
+@Immutable
 public class FieldRuleOptions {
 
     public static final FieldRuleOptions EMPTY = new FieldRuleOptions(null);
 
     private final DescriptionRetrieveStrategy descriptionRetrieveStrategy;
+    private final Boolean normalize;
+    private final Integer maxLength;
 
     public FieldRuleOptions(DescriptionRetrieveStrategy descriptionRetrieveStrategy) {
+        this(descriptionRetrieveStrategy, null, null);
+    }
+
+    public FieldRuleOptions(DescriptionRetrieveStrategy descriptionRetrieveStrategy, Boolean normalize,
+        Integer maxLength)
+    {
         this.descriptionRetrieveStrategy = descriptionRetrieveStrategy;
+        this.normalize = normalize;
+        this.maxLength = maxLength;
     }
 
     public DescriptionRetrieveStrategy getDescriptionRetrieveStrategy() {
         return descriptionRetrieveStrategy;
     }
+
+    /**
+     * @return {@code true} if descriptions should be normalized
+     * (see {@link com.devexperts.dgen.DescriptionFormatter#normalize(String)}), or {@code null} if not specified.
+     */
+    public Boolean getNormalize() {
+        return normalize;
+    }
+
+    /**
+     * @return maximal length of descriptions in characters or {@code null} if not specified.
+     */
+    public Integer getMaxLength() {
+        return maxLength;
+    }
 }
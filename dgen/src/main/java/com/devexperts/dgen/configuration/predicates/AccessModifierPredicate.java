@@ -24,9 +24,11 @@ package com.devexperts.dgen.configuration.predicates;
 import com.sun.tools.javac.tree.JCTree;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.Set;
+import javax.annotation.concurrent.Immutable;
 import javax.lang.model.element.Modifier;
 
 /**
@@ -40,12 +42,13 @@ import javax.lang.model.element.Modifier;
  * <p>
  * Can be applied to JCClassDecl|JCMethodDecl|JCVariableDecl.
  */
+@Immutable
 public class AccessModifierPredicate extends TreePredicate {
 
     private final Set<AccessModifier> accessModifiers;
 
     public AccessModifierPredicate(Collection<AccessModifier> accessModifiers) {
-        this.accessModifiers = EnumSet.copyOf(accessModifiers);
+        this.accessModifiers = Collections.unmodifiableSet(EnumSet.copyOf(accessModifiers));
     }
 
     @Override
@@ -71,6 +74,16 @@ public class AccessModifierPredicate extends TreePredicate {
         return false;
     }
 
+    @Override
+    public int getCost() {
+        return FLAG_COST;
+    }
+
+    @Override
+    public boolean isApplicableToAllKinds() {
+        return true;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -24,6 +24,8 @@ package com.devexperts.dgen.configuration.predicates;
 import com.sun.tools.javac.code.Type;
 import com.sun.tools.javac.tree.JCTree;
 
+import javax.annotation.concurrent.Immutable;
+
 /**
  * Checks that class extends (or implements) specified class (or interface) in declaration.
  * <p>
@@ -33,6 +35,7 @@ import com.sun.tools.javac.tree.JCTree;
  * <p>
  * Can be applied to JCClassDecl only.
  */
+@Immutable
 public class ExtendsOrImplementsPredicate extends TreePredicate {
 
     private final String className;
@@ -64,4 +67,9 @@ public class ExtendsOrImplementsPredicate extends TreePredicate {
     private boolean checkClassName(Type.ClassType classType) {
         return className.equals(classType.tsym.getQualifiedName().toString());
     }
+
+    @Override
+    public int getCost() {
+        return SYMBOL_COST;
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.configuration.predicates;
+
+import com.sun.tools.javac.code.Attribute;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+
+import javax.annotation.concurrent.Immutable;
+import javax.lang.model.util.Elements;
+
+/**
+ * Checks that declaration is (or is not) annotated with specified annotation, annotations of any retention
+ * are visible during compilation.
+ * <p>
+ * Annotation types are compared by their qualified names, {@link #bind(Elements) bound} predicate resolves
+ * the annotation type once per compilation and compares symbols.
+ * <p>
+ * Can be applied to JCClassDecl|JCMethodDecl|JCVariableDecl.
+ */
+@Immutable
+public class HasAnnotationPredicate extends TreePredicate {
+
+    private final String annotationName;
+    private final boolean present;
+    private final boolean bound;
+    // annotation type of the compilation the predicate is bound to, null if it isn't found
+    private final Symbol annotationType;
+
+    /**
+     * @param annotationName qualified name of annotation type.
+     * @param present        {@code true} if declaration should be annotated, {@code false} if it shouldn't be.
+     */
+    public HasAnnotationPredicate(String annotationName, boolean present) {
+        this(annotationName, present, false, null);
+    }
+
+    private HasAnnotationPredicate(String annotationName, boolean present, boolean bound, Symbol annotationType) {
+        this.annotationName = annotationName;
+        this.present = present;
+        this.bound = bound;
+        this.annotationType = annotationType;
+    }
+
+    /**
+     * @param elements element utilities of the compilation.
+     * @return predicate comparing annotation types with the one resolved in the compilation,
+     * it should not be used by other compilations.
+     */
+    public HasAnnotationPredicate bind(Elements elements) {
+        return new HasAnnotationPredicate(annotationName, present, true,
+            (Symbol) elements.getTypeElement(annotationName));
+    }
+
+    @Override
+    protected boolean apply(JCTree.JCClassDecl classDecl) {
+        return apply(classDecl.sym);
+    }
+
+    @Override
+    protected boolean apply(JCTree.JCMethodDecl methodDecl) {
+        return apply(methodDecl.sym);
+    }
+
+    @Override
+    protected boolean apply(JCTree.JCVariableDecl variableDecl) {
+        return apply(variableDecl.sym);
+    }
+
+    private boolean apply(Symbol symbol) {
+        return isAnnotated(symbol) == present;
+    }
+
+    private boolean isAnnotated(Symbol symbol) {
+        if (symbol == null || (bound && annotationType == null)) // unknown annotation can't be used
+            return false;
+        for (Attribute.Compound annotation : symbol.getRawAttributes()) {
+            Symbol type = annotation.type.tsym;
+            if (bound ? type == annotationType : annotationName.contentEquals(type.getQualifiedName()))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int getCost() {
+        return SYMBOL_COST;
+    }
+
+    @Override
+    public boolean isApplicableToAllKinds() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "hasAnnotation " + (present ? "=" : "!=") + " \"" + annotationName + "\";";
+    }
+}
@@ -25,11 +25,14 @@ import com.sun.tools.javac.code.Flags;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.tree.JCTree;
 
+import javax.annotation.concurrent.Immutable;
+
 /**
  * Checks that tree has specified static modifier.
  * <p>
  * Can be applied to JCClassDecl|JCMethodDecl|JCVariableDecl.
  */
+@Immutable
 public class IsStaticPredicate extends TreePredicate {
 
     private final boolean isStatic;
@@ -57,6 +60,16 @@ public class IsStaticPredicate extends TreePredicate {
         return Flags.isStatic(symbol) == isStatic;
     }
 
+    @Override
+    public int getCost() {
+        return FLAG_COST;
+    }
+
+    @Override
+    public boolean isApplicableToAllKinds() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "isStatic = " + isStatic + ";";
@@ -24,6 +24,7 @@ package com.devexperts.dgen.configuration.predicates;
 import com.sun.tools.javac.tree.JCTree;
 
 import java.util.regex.Pattern;
+import javax.annotation.concurrent.Immutable;
 
 /**
  * Checks that tree's name matches with specified regex.
@@ -31,6 +32,7 @@ import java.util.regex.Pattern;
  * <p>
  * Can be applied to JCClassDecl|JCMethodDecl|JCVariableDecl.
  */
+@Immutable
 public class NamePredicate extends TreePredicate {
 
     private final Pattern pattern;
@@ -58,6 +60,16 @@ public class NamePredicate extends TreePredicate {
         return pattern.matcher(name).matches();
     }
 
+    @Override
+    public int getCost() {
+        return REGEX_COST;
+    }
+
+    @Override
+    public boolean isApplicableToAllKinds() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return "name = \"" + pattern.pattern() + "\";";
@@ -26,14 +26,33 @@ import com.sun.tools.javac.tree.JCTree.JCClassDecl;
 import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
 import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
 
+import java.util.function.UnaryOperator;
+
 /**
  * Determines {@code true} of {@code false} for given element.
  * Predicate can be applied to custom element kinds ONLY.
  * <p>
  * Can be applied to {@link com.sun.tools.javac.tree.JCTree.JCClassDecl}, {@link com.sun.tools.javac.tree.JCTree.JCMethodDecl} or {@link com.sun.tools.javac.tree.JCTree.JCVariableDecl}.
+ * <p>
+ * Implementations should be immutable: predicates of parsed configuration are shared by concurrent compilations.
  */
 public abstract class TreePredicate {
 
+    /**
+     * Estimated {@link #getCost() cost} of checks of modifiers.
+     */
+    public static final int FLAG_COST = 1;
+
+    /**
+     * Estimated {@link #getCost() cost} of checks of symbols, e.g. of annotations or supertypes.
+     */
+    public static final int SYMBOL_COST = 4;
+
+    /**
+     * Estimated {@link #getCost() cost} of matching with regular expressions.
+     */
+    public static final int REGEX_COST = 16;
+
     /**
      * Returns the result of applying predicate to {@code tree}.
      * It's execution does not cause any observable side-effects.
@@ -55,6 +74,33 @@ public abstract class TreePredicate {
         }
     }
 
+    /**
+     * Returns estimated relative cost of {@link #apply(JCTree) evaluation}, it is used to evaluate cheaper
+     * components of composite predicates first. Unknown predicates are considered as expensive as regular expressions.
+     */
+    public int getCost() {
+        return REGEX_COST;
+    }
+
+    /**
+     * Returns {@code true} if predicate can be applied to classes, methods and fields. Other predicates are
+     * never evaluated before components which preceded them in composite predicates, since these components
+     * may guard them from unsupported declarations. Unknown predicates are considered as partial.
+     */
+    public boolean isApplicableToAllKinds() {
+        return false;
+    }
+
+    /**
+     * Returns predicate where this predicate and all its components are replaced by the results of {@code mapper}.
+     *
+     * @param mapper function applied to each predicate, components are mapped before their composite.
+     * @return mapped predicate.
+     */
+    public TreePredicate map(UnaryOperator<TreePredicate> mapper) {
+        return mapper.apply(this);
+    }
+
     protected boolean apply(JCClassDecl classDecl) {
         throw new IllegalStateException("Predicate does not support JCClassDecl input");
     }
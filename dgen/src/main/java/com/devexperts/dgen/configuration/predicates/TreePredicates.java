@@ -24,7 +24,11 @@ package com.devexperts.dgen.configuration.predicates;
 import com.devexperts.dgen.configuration.FormattingUtils;
 import com.sun.tools.javac.tree.JCTree;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * Utility methods for {@link TreePredicate}.
@@ -37,6 +41,16 @@ public class TreePredicates {
             return true;
         }
 
+        @Override
+        public int getCost() {
+            return 0;
+        }
+
+        @Override
+        public boolean isApplicableToAllKinds() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "TRUE";
@@ -72,12 +86,200 @@ public class TreePredicates {
         return new AndPredicate(predicates);
     }
 
+    /**
+     * @param predicate predicate to be negated.
+     * @return a predicate that evaluates to {@code true} if {@code predicate} evaluates to {@code false}.
+     */
+    public static TreePredicate not(TreePredicate predicate) {
+        return new NotPredicate(predicate);
+    }
+
+    /**
+     * Returns predicate that evaluates to the same value with less work: components of composite predicates
+     * are ordered by their {@link TreePredicate#getCost() cost}, so cheaper components decide the result first,
+     * nested predicates of the same kind are flattened, single components and double negations are unwrapped.
+     * Predicates have no side effects and components which are not {@link TreePredicate#isApplicableToAllKinds()
+     * applicable to all declarations} are not moved, so the order of evaluation doesn't change the result.
+     *
+     * @param predicate predicate to be optimized.
+     * @return optimized predicate.
+     */
+    public static TreePredicate optimize(TreePredicate predicate) {
+        return predicate.map(TreePredicates::optimizeComposite);
+    }
+
+    // components are already optimized
+    private static TreePredicate optimizeComposite(TreePredicate predicate) {
+        if (predicate instanceof NotPredicate && ((NotPredicate) predicate).predicate instanceof NotPredicate)
+            return ((NotPredicate) ((NotPredicate) predicate).predicate).predicate;
+        if (!(predicate instanceof ListPredicate))
+            return predicate;
+        ListPredicate listPredicate = (ListPredicate) predicate;
+        List<TreePredicate> components = new ArrayList<>();
+        for (TreePredicate component : listPredicate.predicates) {
+            if (component.getClass() == listPredicate.getClass()) {
+                components.addAll(((ListPredicate) component).predicates);
+            } else {
+                components.add(component);
+            }
+        }
+        if (components.size() == 1)
+            return components.get(0);
+        // partial components are kept after the components which guard them from unsupported declarations
+        int start = 0;
+        for (int i = 0; i <= components.size(); i++) {
+            if (i == components.size() || !components.get(i).isApplicableToAllKinds()) {
+                components.subList(start, i).sort(Comparator.comparingInt(TreePredicate::getCost)); // stable
+                start = i + 1;
+            }
+        }
+        return listPredicate.withPredicates(components);
+    }
+
+    /**
+     * @param predicate predicate to be evaluated.
+     * @param counter action to be run on each evaluation of {@code predicate}.
+     * @return a predicate that evaluates to the same value as {@code predicate} and notifies {@code counter}.
+     */
+    public static TreePredicate counting(TreePredicate predicate, Runnable counter) {
+        return new CountingPredicate(predicate, counter);
+    }
+
+    /**
+     * @param predicate predicate to be evaluated.
+     * @param listener  listener notified with the result and the duration of each evaluation of {@code predicate}.
+     * @return a predicate that evaluates to the same value as {@code predicate} and notifies {@code listener}.
+     */
+    public static TreePredicate profiling(TreePredicate predicate, EvaluationListener listener) {
+        return new ProfilingPredicate(predicate, listener);
+    }
+
+    private static final class CountingPredicate extends TreePredicate {
+
+        private final TreePredicate predicate;
+        private final Runnable counter;
+
+        private CountingPredicate(TreePredicate predicate, Runnable counter) {
+            this.predicate = predicate;
+            this.counter = counter;
+        }
+
+        @Override
+        public boolean apply(JCTree tree) {
+            counter.run();
+            return predicate.apply(tree);
+        }
+
+        @Override
+        public int getCost() {
+            return predicate.getCost();
+        }
+
+        @Override
+        public boolean isApplicableToAllKinds() {
+            return predicate.isApplicableToAllKinds();
+        }
+
+        @Override
+        public String toString() {
+            return predicate.toString();
+        }
+    }
+
+    private static final class ProfilingPredicate extends TreePredicate {
+
+        private final TreePredicate predicate;
+        private final EvaluationListener listener;
+
+        private ProfilingPredicate(TreePredicate predicate, EvaluationListener listener) {
+            this.predicate = predicate;
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean apply(JCTree tree) {
+            long start = System.nanoTime();
+            boolean result = predicate.apply(tree);
+            listener.evaluated(result, System.nanoTime() - start);
+            return result;
+        }
+
+        @Override
+        public int getCost() {
+            return predicate.getCost();
+        }
+
+        @Override
+        public boolean isApplicableToAllKinds() {
+            return predicate.isApplicableToAllKinds();
+        }
+
+        @Override
+        public String toString() {
+            return predicate.toString();
+        }
+    }
+
+    /**
+     * Listener of evaluations of {@link #profiling(TreePredicate, EvaluationListener) profiled} predicate.
+     */
+    public interface EvaluationListener {
+        /**
+         * @param result result of evaluation.
+         * @param nanos  duration of evaluation in nanoseconds including evaluation of components.
+         */
+        void evaluated(boolean result, long nanos);
+    }
+
+    private static final class NotPredicate extends TreePredicate {
+
+        private final TreePredicate predicate;
+
+        private NotPredicate(TreePredicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean apply(JCTree tree) {
+            return !predicate.apply(tree);
+        }
+
+        @Override
+        public TreePredicate map(UnaryOperator<TreePredicate> mapper) {
+            return mapper.apply(new NotPredicate(predicate.map(mapper)));
+        }
+
+        @Override
+        public int getCost() {
+            return predicate.getCost();
+        }
+
+        @Override
+        public boolean isApplicableToAllKinds() {
+            return predicate.isApplicableToAllKinds();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("NOT {\n");
+            FormattingUtils.appendWithTabShift(builder, predicate);
+            builder.append("\n}");
+            return builder.toString();
+        }
+    }
+
     private static final class OrPredicate extends ListPredicate {
 
         private OrPredicate(List<TreePredicate> predicates) {
             super(predicates, "OR");
         }
 
+        @Override
+        protected ListPredicate withPredicates(List<TreePredicate> predicates) {
+            return new OrPredicate(predicates);
+        }
+
         @Override
         public boolean apply(JCTree tree) {
             for (TreePredicate predicate : predicates) {
@@ -94,6 +296,11 @@ public class TreePredicates {
             super(predicates, "AND");
         }
 
+        @Override
+        protected ListPredicate withPredicates(List<TreePredicate> predicates) {
+            return new AndPredicate(predicates);
+        }
+
         @Override
         public boolean apply(JCTree tree) {
             for (TreePredicate predicate : predicates) {
@@ -110,10 +317,40 @@ public class TreePredicates {
         protected final String name;
 
         protected ListPredicate(List<TreePredicate> predicates, String name) {
-            this.predicates = predicates;
+            this.predicates = Collections.unmodifiableList(new ArrayList<>(predicates));
             this.name = name;
         }
 
+        protected abstract ListPredicate withPredicates(List<TreePredicate> predicates);
+
+        // the worst case, when all components are evaluated
+        @Override
+        public int getCost() {
+            int cost = 0;
+            for (TreePredicate predicate : predicates) {
+                cost += predicate.getCost();
+            }
+            return cost;
+        }
+
+        @Override
+        public boolean isApplicableToAllKinds() {
+            for (TreePredicate predicate : predicates) {
+                if (!predicate.isApplicableToAllKinds())
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public TreePredicate map(UnaryOperator<TreePredicate> mapper) {
+            List<TreePredicate> mapped = new ArrayList<>(predicates.size());
+            for (TreePredicate predicate : predicates) {
+                mapped.add(predicate.map(mapper));
+            }
+            return mapper.apply(withPredicates(mapped));
+        }
+
         @Override
         public String toString() {
             StringBuilder builder = new StringBuilder();
@@ -0,0 +1,147 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Starts phases of {@link DgenProcessor} work reported as JDK Flight Recorder events.
+ * <p>
+ * Java 11+ version of the class from multi-release jar. Events are disabled unless recording is started,
+ * e.g. by {@code -J-XX:StartFlightRecording} option of javac, and then may be viewed in JDK Mission Control.
+ * Disabled events aren't allocated, {@link ProcessorPhase#NONE} is returned instead.
+ */
+final class ProcessorEvents {
+
+    private static final EventType CONFIGURATION_LOAD = EventType.getEventType(ConfigurationLoadEvent.class);
+    private static final EventType COMPILATION_UNIT = EventType.getEventType(CompilationUnitEvent.class);
+    private static final EventType DOC_COMMENT_PARSE = EventType.getEventType(DocCommentParseEvent.class);
+    private static final EventType RULE_MATCH = EventType.getEventType(RuleMatchEvent.class);
+    private static final EventType ANNOTATION_INJECTION = EventType.getEventType(AnnotationInjectionEvent.class);
+
+    private ProcessorEvents() {
+    }
+
+    static ProcessorPhase configurationLoad() {
+        return CONFIGURATION_LOAD.isEnabled() ? new ConfigurationLoadEvent().start() : ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase compilationUnit() {
+        return COMPILATION_UNIT.isEnabled() ? new CompilationUnitEvent().start() : ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase docCommentParse() {
+        return DOC_COMMENT_PARSE.isEnabled() ? new DocCommentParseEvent().start() : ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase ruleMatch() {
+        return RULE_MATCH.isEnabled() ? new RuleMatchEvent().start() : ProcessorPhase.NONE;
+    }
+
+    static ProcessorPhase annotationInjection() {
+        return ANNOTATION_INJECTION.isEnabled() ? new AnnotationInjectionEvent().start() : ProcessorPhase.NONE;
+    }
+
+    @Category("Dgen")
+    abstract static class PhaseEvent extends Event implements ProcessorPhase {
+        @Label("Class Name")
+        String className;
+
+        @Label("Member")
+        String member;
+
+        @Label("Member Count")
+        int memberCount;
+
+        @Label("Strategy")
+        String strategy;
+
+        PhaseEvent start() {
+            begin();
+            return this;
+        }
+
+        @Override
+        public ProcessorPhase className(String className) {
+            this.className = className;
+            return this;
+        }
+
+        @Override
+        public ProcessorPhase member(CharSequence member) {
+            this.member = member.toString();
+            return this;
+        }
+
+        @Override
+        public ProcessorPhase memberCount(int memberCount) {
+            this.memberCount = memberCount;
+            return this;
+        }
+
+        @Override
+        public ProcessorPhase strategy(Object strategy) {
+            this.strategy = strategy != null ? strategy.toString() : null;
+            return this;
+        }
+
+        @Override
+        public void finish() {
+            commit();
+        }
+    }
+
+    @Name("com.devexperts.dgen.ConfigurationLoad")
+    @Label("Configuration Load")
+    @Description("Loading of dgen configuration, member count is the number of class rules")
+    static class ConfigurationLoadEvent extends PhaseEvent {
+    }
+
+    @Name("com.devexperts.dgen.CompilationUnit")
+    @Label("Compilation Unit")
+    @Description("Processing of top-level class, member count is the number of visited declarations")
+    static class CompilationUnitEvent extends PhaseEvent {
+    }
+
+    @Name("com.devexperts.dgen.DocCommentParse")
+    @Label("Doc Comment Parse")
+    @Description("Lookup and parsing of Javadoc of declaration")
+    static class DocCommentParseEvent extends PhaseEvent {
+    }
+
+    @Name("com.devexperts.dgen.RuleMatch")
+    @Label("Rule Match")
+    @Description("Matching of configuration rules, member count is the number of members of matched class")
+    static class RuleMatchEvent extends PhaseEvent {
+    }
+
+    @Name("com.devexperts.dgen.AnnotationInjection")
+    @Label("Annotation Injection")
+    @Description("Injection of description annotations, member count is the number of injected annotations")
+    static class AnnotationInjectionEvent extends PhaseEvent {
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.runtime.Description;
+import com.devexperts.dgen.runtime.Descriptions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests generation of configured annotation instead of {@code com.devexperts.annotation.Description}.
+ */
+public class AnnotationTargetTest {
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "/**\n" +
+        " * Service.\n" +
+        " * @dgen.annotate method {}\n" +
+        " */\n" +
+        "public class Service {\n" +
+        "    /**\n" +
+        "     * Connects.\n" +
+        "     * @param address address.\n" +
+        "     */\n" +
+        "    public void connect(String address) {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void bundledAnnotationShouldBeGenerated() throws Exception {
+        TestCompiler.Result result = TestCompiler.compile(folder.getRoot().toPath(), sources(SOURCE),
+            "-Adgen.annotation=com.devexperts.dgen.runtime.Description");
+        Class<?> service = result.newClassLoader().loadClass("sample.Service");
+        Method connect = service.getMethod("connect", String.class);
+
+        assertEquals("Service.", service.getAnnotation(Description.class).value());
+        assertEquals("Connects.", connect.getAnnotation(Description.class).value());
+        Description parameter = (Description) connect.getParameterAnnotations()[0][0];
+        assertEquals("address", parameter.name());
+        assertEquals("address.", parameter.value());
+        assertNull(service.getAnnotation(com.devexperts.annotation.Description.class));
+
+        assertEquals("Connects.", Descriptions.getDescription(connect));
+        assertEquals("address.", Descriptions.getParameterDescription(connect, 0));
+    }
+
+    @Test
+    public void customAnnotationMembersShouldBeUsed() throws Exception {
+        Map<String, String> sources = sources(SOURCE);
+        sources.put("sample.Help",
+            "package sample;\n" +
+            "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n" +
+            "public @interface Help {\n" +
+            "    String text();\n" +
+            "}\n");
+        TestCompiler.Result result = TestCompiler.compile(folder.getRoot().toPath(), sources,
+            "-Adgen.annotation=sample.Help", "-Adgen.annotation.value=text", "-Adgen.annotation.name=");
+        ClassLoader loader = result.newClassLoader();
+        @SuppressWarnings("unchecked")
+        Class<? extends Annotation> help = (Class<? extends Annotation>) loader.loadClass("sample.Help");
+        Method connect = loader.loadClass("sample.Service").getMethod("connect", String.class);
+
+        Annotation annotation = connect.getParameterAnnotations()[0][0];
+        assertEquals("address.", help.getMethod("text").invoke(annotation));
+        assertEquals("Connects.", help.getMethod("text").invoke(connect.getAnnotation(help)));
+    }
+
+    private static Map<String, String> sources(String service) {
+        Map<String, String> sources = new HashMap<>();
+        sources.put("sample.Service", service);
+        return sources;
+    }
+}
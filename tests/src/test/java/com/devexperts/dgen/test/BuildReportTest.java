@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests JSON Lines report of generated descriptions.
+ */
+public class BuildReportTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    options { retrieveStrategy = all; }\n" +
+        "    method { access = public; options { retrieveStrategy = firstSentence; } }\n" +
+        "}\n";
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "/** Sample \"quoted\". Details. */ public class Sample {\n" +
+        "    /**\n" +
+        "     * Get.\n" +
+        "     * @param a value.\n" +
+        "     */\n" +
+        "    public int get(int a, String[] b) { return a; }\n" +
+        "    /**\n" +
+        "     * Hidden. Details.\n" +
+        "     * @dgen.annotate options { retrieveStrategy = firstParagraph; }\n" +
+        "     */\n" +
+        "    void hidden() {}\n" +
+        "    /** Nested. */ public static class Nested {}\n" +
+        "}\n";
+
+    private static final String INLINE_SOURCE =
+        "package sample;\n" +
+        "/**\n" +
+        " * Sample.\n" +
+        " * @dgen.annotate method { access = public; options { retrieveStrategy = firstSentence; } }\n" +
+        " */\n" +
+        "public class Sample {\n" +
+        "    /** Get. Details. */ public int get() { return 0; }\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reportShouldDescribeElements() throws Exception {
+        Path configuration = folder.getRoot().toPath().resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        List<String> lines = compile(SOURCE, "-Adgen.config=" + configuration);
+        assertEquals(lines.toString(), 6, lines.size());
+        assertTrue(lines.get(0), lines.get(0).startsWith(
+            "{\"type\":\"method\",\"signature\":\"sample.Sample.get(int,java.lang.String[])\",\"rule\":\"config:4\"," +
+            "\"strategy\":\"FIRST_SENTENCE\",\"length\":10,\"nanos\":"));
+        assertTrue(lines.get(1), lines.get(1).startsWith(
+            "{\"type\":\"method\",\"signature\":\"sample.Sample.hidden()\",\"rule\":\"javadoc\"," +
+            "\"strategy\":\"FIRST_PARAGRAPH\",\"length\":16,\"nanos\":"));
+        assertTrue(lines.get(2), lines.get(2).startsWith(
+            "{\"type\":\"class\",\"signature\":\"sample.Sample$Nested\",\"rule\":\"config:1\",\"strategy\":\"ALL\"," +
+            "\"length\":7,\"nanos\":"));
+        assertTrue(lines.get(3), lines.get(3).startsWith(
+            "{\"type\":\"class\",\"signature\":\"sample.Sample\",\"rule\":\"config:1\",\"strategy\":\"ALL\"," +
+            "\"length\":25,\"nanos\":"));
+        assertTrue(lines.get(4), lines.get(4).startsWith(
+            "{\"type\":\"unit\",\"class\":\"sample.Sample\",\"elements\":4,\"bytes\":58,\"nanos\":"));
+        assertTrue(lines.get(5), lines.get(5).startsWith(
+            "{\"type\":\"summary\",\"classes\":1,\"elements\":4,\"bytes\":58,\"bytesPerClass\":58,\"nanos\":"));
+        assertTrue(lines.get(5), lines.get(5).contains(",\"slowestUnits\":[{\"class\":\"sample.Sample\",\"nanos\":"));
+    }
+
+    @Test
+    public void reportShouldNotAssignConfigurationLineToInlineRules() throws Exception {
+        List<String> lines = compile(INLINE_SOURCE);
+        assertEquals(lines.toString(), 4, lines.size());
+        assertTrue(lines.get(0), lines.get(0).startsWith(
+            "{\"type\":\"method\",\"signature\":\"sample.Sample.get()\",\"rule\":\"javadoc\"," +
+            "\"strategy\":\"FIRST_SENTENCE\",\"length\":4,\"nanos\":"));
+        assertTrue(lines.get(1), lines.get(1).startsWith(
+            "{\"type\":\"class\",\"signature\":\"sample.Sample\",\"rule\":\"javadoc\","));
+    }
+
+    private List<String> compile(String source, String... options) throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path report = root.resolve("dgen-report.jsonl");
+        List<String> allOptions = new ArrayList<>(Arrays.asList(options));
+        allOptions.add("-Adgen.report=" + report);
+        TestCompiler.compile(root, Collections.singletonMap("sample.Sample", source), new DgenProcessor(),
+            allOptions.toArray(new String[0]));
+        return Files.readAllLines(report, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import org.junit.Test;
+
+import static com.devexperts.dgen.test.Utils.assertEquals;
+import static com.devexperts.dgen.test.Utils.getDescription;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests generated {@code $Descriptions} companion classes.
+ */
+@SuppressWarnings("ALL")
+public class CompanionTest {
+
+    /**
+     * A
+     *
+     * @dgen.annotate field {} method {}
+     */
+    static class A {
+
+        /** X */
+        int x;
+
+        /**
+         * F
+         *
+         * @param a first
+         * @param b
+         */
+        void f(int a, String[] b) {}
+
+        /** Constructor */
+        A(java.util.List<String> list) {}
+
+        int undocumented;
+    }
+
+    @Test
+    public void companionShouldContainGeneratedDescriptions() {
+        assertEquals("A", CompanionTest$Descriptions.describe("A"));
+        assertEquals("X", CompanionTest$Descriptions.describe("A.x"));
+        assertEquals("F", CompanionTest$Descriptions.describe("A.f(int,java.lang.String[])"));
+        assertEquals("first", CompanionTest$Descriptions.describe("A.f(int,java.lang.String[])#0"));
+        assertEquals("Constructor", CompanionTest$Descriptions.describe("A.<init>(java.util.List)"));
+        assertEquals("", CompanionTest$Descriptions.describe("A.f(int,java.lang.String[])#1"));
+        assertNull(CompanionTest$Descriptions.describe("A.undocumented"));
+        assertNull(CompanionTest$Descriptions.describe(""));
+    }
+
+    @Test
+    public void companionConstantsShouldMatchAnnotations() throws NoSuchFieldException {
+        assertEquals(getDescription(A.class), CompanionTest$Descriptions.A);
+        assertEquals(getDescription(A.class.getDeclaredField("x")), CompanionTest$Descriptions.A_X);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import com.devexperts.dgen.ProcessingStatistics;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that work done by dgen processor grows linearly with the number of class members.
+ * <p>
+ * Deterministic counters of {@link ProcessingStatistics} are compared instead of timings,
+ * so superlinear algorithms fail the test on any machine.
+ */
+public class ComplexityTest {
+
+    private static final int[] MEMBERS = {1_000, 4_000, 16_000, 64_000};
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\.Large\";\n" +
+        "    method { name = \"never.*\"; }\n" +
+        "    method { access = public; }\n" +
+        "    field { isStatic = true; }\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void processingCostShouldGrowLinearly() throws Exception {
+        Path configuration = folder.getRoot().toPath().resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+
+        ProcessingStatistics[] statistics = new ProcessingStatistics[MEMBERS.length];
+        for (int i = 0; i < MEMBERS.length; i++) {
+            DgenProcessor processor = new DgenProcessor();
+            // classes with that many members don't fit into class files, so only processing is done
+            TestCompiler.compile(folder.newFolder("members" + MEMBERS[i]).toPath(),
+                Collections.singletonMap("sample.Large", source(MEMBERS[i])), processor,
+                "-proc:only", "-Adgen.config=" + configuration);
+            statistics[i] = processor.getStatistics();
+        }
+
+        // Javadoc is looked up once per declaration: class, its default constructor, fields, methods and parameters
+        for (int i = 0; i < MEMBERS.length; i++) {
+            assertEquals(2 + MEMBERS[i] + MEMBERS[i] / 2, statistics[i].getDocCommentLookups());
+        }
+        assertLinear("visited nodes", statistics, ProcessingStatistics::getVisitedNodes);
+        assertLinear("predicate evaluations", statistics, ProcessingStatistics::getPredicateEvaluations);
+    }
+
+    private static void assertLinear(String counter, ProcessingStatistics[] statistics,
+        ToLongFunction<ProcessingStatistics> value)
+    {
+        double smallest = (double) value.applyAsLong(statistics[0]) / MEMBERS[0];
+        assertTrue(counter + " should be counted", smallest > 0);
+        for (int i = 1; i < MEMBERS.length; i++) {
+            double perMember = (double) value.applyAsLong(statistics[i]) / MEMBERS[i];
+            assertTrue(counter + " per member grows from " + smallest + " to " + perMember + " for " +
+                MEMBERS[i] + " members", perMember <= smallest * 1.01);
+        }
+    }
+
+    /**
+     * Generates class with half of members being static fields and half being public methods with one parameter.
+     */
+    private static String source(int members) {
+        StringBuilder source = new StringBuilder("package sample;\n" +
+            "/** Large class. */\n" +
+            "public class Large {\n");
+        for (int i = 0; i < members; i += 2) {
+            source.append("    /** Field ").append(i).append(". */\n")
+                .append("    public static int field").append(i).append(";\n")
+                .append("    /**\n")
+                .append("     * Method ").append(i).append(".\n")
+                .append("     * @param value new value.\n")
+                .append("     */\n")
+                .append("    public void method").append(i).append("(int value) {\n")
+                .append("        if (value > 0)\n")
+                .append("            field").append(i).append(" = value;\n")
+                .append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+}
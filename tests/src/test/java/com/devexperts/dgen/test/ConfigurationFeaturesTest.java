@@ -24,6 +24,8 @@ package com.devexperts.dgen.test;
 import com.devexperts.annotation.Description;
 import org.junit.Test;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -243,4 +245,67 @@ public class ConfigurationFeaturesTest {
             getDescription(J3.class)
         );
     }
+
+    /**
+     * @dgen.annotate
+     * field { hasAnnotation = "java.lang.Deprecated"; }
+     * method { hasAnnotation != "java.lang.Deprecated"; }
+     */
+    class K {
+        /**A*/ @Deprecated int a;
+        /**B*/ int b;
+        /**F*/ void f() {}
+        /**G*/ @Deprecated void g() {}
+    }
+
+    @Test
+    public void checkHasAnnotationPredicateWorksAsWell() throws NoSuchFieldException, NoSuchMethodException {
+        assertEquals("A", getDescription(K.class.getDeclaredField("a")));
+        assertNull("b shouldn't be processed", getDescription(K.class.getDeclaredField("b")));
+        assertEquals("F", getDescription(K.class.getDeclaredMethod("f")));
+        assertNull("g shouldn't be processed", getDescription(K.class.getDeclaredMethod("g")));
+    }
+
+    @Retention(RetentionPolicy.SOURCE)
+    @interface Generated {}
+
+    /**
+     * L
+     *
+     * @dgen.annotate field {}
+     */
+    @Generated
+    class L {
+        /**A*/ int a;
+        /**M*/ class M {
+            /**B*/ int b;
+        }
+    }
+
+    // Configuration in file
+    @Test
+    public void checkExcludeOption() throws NoSuchFieldException {
+        assertNull("class L shouldn't be annotated because it is excluded", getDescription(L.class));
+        assertNull("a shouldn't be processed", getDescription(L.class.getDeclaredField("a")));
+        assertNull("nested class shouldn't be annotated", getDescription(L.M.class));
+        assertNull("b shouldn't be processed", getDescription(L.M.class.getDeclaredField("b")));
+    }
+
+    /**
+     * @dgen.annotate field { any { name = "a"; isStatic = true; } not { access = private; } }
+     */
+    static class N {
+        /**A*/ int a;
+        /**B*/ static int b;
+        /**C*/ int c;
+        /**D*/ private static int d;
+    }
+
+    @Test
+    public void checkPredicateCombinatorsWorkAsWell() throws NoSuchFieldException {
+        assertEquals("A", getDescription(N.class.getDeclaredField("a")));
+        assertEquals("B", getDescription(N.class.getDeclaredField("b")));
+        assertNull("c shouldn't be processed", getDescription(N.class.getDeclaredField("c")));
+        assertNull("d shouldn't be processed", getDescription(N.class.getDeclaredField("d")));
+    }
 }
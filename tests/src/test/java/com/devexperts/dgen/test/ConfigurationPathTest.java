@@ -0,0 +1,56 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests resolution of configuration file path.
+ */
+public class ConfigurationPathTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void relativePathShouldBeResolvedAgainstProjectDirectory() throws Exception {
+        Path projectDir = folder.newFolder("project").toPath();
+        Files.write(Files.createDirectories(projectDir.resolve("config")).resolve("dgen.config"),
+            "class { name = \"sample\\.Service\"; }\n".getBytes(StandardCharsets.UTF_8));
+
+        TestCompiler.Result result = TestCompiler.compile(projectDir,
+            Collections.singletonMap("sample.Service", "package sample;\n/** Service. */\npublic class Service {}\n"),
+            "-Adgen.projectDir=" + projectDir, "-Adgen.config=config/dgen.config");
+        Class<?> service = result.newClassLoader().loadClass("sample.Service");
+
+        assertEquals("Service.", service.getAnnotation(com.devexperts.annotation.Description.class).value());
+    }
+}
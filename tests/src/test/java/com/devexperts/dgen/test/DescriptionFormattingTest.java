@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static com.devexperts.dgen.test.Utils.assertEquals;
+import static com.devexperts.dgen.test.Utils.getDescription;
+
+/**
+ * Tests {@code normalize} and {@code maxLength} options.
+ */
+@SuppressWarnings("ALL")
+public class DescriptionFormattingTest {
+
+    /**
+     * @dgen.annotate options { normalize = true; retrieveStrategy = all; }
+     *     method { access = public; }
+     */
+    static class A {
+        /**
+         * Returns <b>current</b> value of {@code x}
+         *    &amp; {@link java.util.List#size() list size}.
+         * <p>
+         * See {@link #get(int)} and {@link java.util.Map#get(Object)}.
+         */
+        public int value() { return 0; }
+
+        /**
+         * Returns element.
+         * @param index index of {@literal <element>}
+         *    in the {@code list}.
+         */
+        public int get(int index) { return 0; }
+
+        /**
+         * Raw   text.
+         * @dgen.annotate options { }
+         */
+        public int raw() { return 0; }
+    }
+
+    @Test
+    public void markupShouldBeRemoved() throws Exception {
+        assertEquals("Returns current value of x & list size. See get(int) and java.util.Map.get(Object).",
+            getDescription(A.class.getMethod("value")));
+        Method get = A.class.getMethod("get", int.class);
+        assertEquals("index of <element> in the list.", getDescription(get, 0).value());
+    }
+
+    @Test
+    public void commentOptionsShouldNotInheritClassOptions() throws Exception {
+        assertEquals("Raw   text.", getDescription(A.class.getMethod("raw")));
+    }
+
+    /**
+     * @dgen.annotate options { maxLength = 30; retrieveStrategy = all; }
+     *     field { }
+     */
+    static class B {
+        /** First sentence is short. Second sentence is longer than the limit. */
+        int a;
+
+        /** Description without sentence end that is long */
+        int b;
+
+        /** Short one. */
+        int c;
+    }
+
+    @Test
+    public void descriptionShouldBeTruncated() throws Exception {
+        assertEquals("First sentence is short.", getDescription(B.class.getDeclaredField("a")));
+        assertEquals("Description without...", getDescription(B.class.getDeclaredField("b")));
+        assertEquals("Short one.", getDescription(B.class.getDeclaredField("c")));
+    }
+}
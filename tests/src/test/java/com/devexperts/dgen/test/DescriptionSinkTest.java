@@ -0,0 +1,151 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DescribedElement;
+import com.devexperts.dgen.DescriptionSink;
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that description sinks receive every described declaration with its rule and parsed Javadoc.
+ */
+public class DescriptionSinkTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    options { retrieveStrategy = all; }\n" +
+        "    method { access = public; options { retrieveStrategy = firstSentence; } }\n" +
+        "    field { isStatic = true; }\n" +
+        "}\n";
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "/** Sample. Details. */ public class Sample {\n" +
+        "    /** Constant. */ public static final int VALUE = 1;\n" +
+        "    /**\n" +
+        "     * Gets value. Details.\n" +
+        "     * @param a index.\n" +
+        "     * @return value.\n" +
+        "     */\n" +
+        "    public int get(int a, String b) { return a; }\n" +
+        "    /** Nested. */ public static class Nested {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sinkShouldReceiveDescribedDeclarations() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        compile(sink);
+        assertEquals(Arrays.asList(
+            "init",
+            "start sample.Sample",
+            "FIELD VALUE config:5 \"Constant.\" [] @return null",
+            "METHOD get config:4 \"Gets value.\" [index., null] @return value.",
+            "CLASS Nested config:1 \"Nested.\" [] @return null",
+            "CLASS Sample config:1 \"Sample. Details.\" [] @return null",
+            "end sample.Sample",
+            "over"
+        ), sink.events);
+    }
+
+    @Test
+    public void sinkShouldReceiveCachedDescriptionsWithoutJavadoc() throws Exception {
+        compile(new RecordingSink(), "-Adgen.cache=" + folder.getRoot().toPath().resolve("cache"));
+        RecordingSink sink = new RecordingSink();
+        compile(sink, "-Adgen.cache=" + folder.getRoot().toPath().resolve("cache"));
+        assertEquals(Arrays.asList(
+            "init",
+            "start sample.Sample",
+            "FIELD VALUE cache \"Constant.\" []",
+            "METHOD get cache \"Gets value.\" [index., null]",
+            "CLASS Nested cache \"Nested.\" []",
+            "CLASS Sample cache \"Sample. Details.\" []",
+            "end sample.Sample",
+            "over"
+        ), sink.events);
+    }
+
+    private void compile(DescriptionSink sink, String... options) throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        DgenProcessor processor = new DgenProcessor();
+        processor.addSink(sink);
+        List<String> allOptions = new ArrayList<>(Arrays.asList(options));
+        allOptions.add("-Adgen.config=" + configuration);
+        TestCompiler.compile(root, Collections.singletonMap("sample.Sample", SOURCE), processor,
+            allOptions.toArray(new String[0]));
+    }
+
+    private static class RecordingSink implements DescriptionSink {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void init(ProcessingEnvironment processingEnv) {
+            events.add("init");
+        }
+
+        @Override
+        public void startClass(TypeElement topLevelClass) {
+            events.add("start " + topLevelClass.getQualifiedName());
+        }
+
+        @Override
+        public void describe(DescribedElement element) {
+            int line = element.getClassRule() != null ? element.getClassRule().getLine() :
+                element.getMethodRule() != null ? element.getMethodRule().getLine() :
+                element.getFieldRule() != null ? element.getFieldRule().getLine() : 0;
+            events.add(element.getElement().getKind() + " " + element.getElement().getSimpleName() + " " +
+                (line > 0 ? "config:" + line : "cache") + " \"" + element.getDescription() + "\" " +
+                element.getParameterDescriptions() +
+                (element.getComment() != null ? " @return " + element.getComment().getReturnTagValue() : ""));
+        }
+
+        @Override
+        public void endClass(TypeElement topLevelClass) {
+            events.add("end " + topLevelClass.getQualifiedName());
+        }
+
+        @Override
+        public void processingOver() {
+            events.add("over");
+        }
+    }
+}
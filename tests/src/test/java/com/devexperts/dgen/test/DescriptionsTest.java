@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.annotation.Description;
+import com.devexperts.dgen.runtime.Descriptions;
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+import static com.devexperts.dgen.test.Utils.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests runtime {@link Descriptions} lookup.
+ */
+@SuppressWarnings("ALL")
+public class DescriptionsTest {
+
+    /**
+     * A
+     *
+     * @dgen.annotate field {} method {}
+     */
+    static class A {
+
+        /** X */
+        int x;
+
+        /** Y */
+        @Description("Explicit") int y;
+
+        int z;
+
+        /**
+         * F
+         *
+         * @param a first
+         */
+        void f(int a, String b) {}
+
+        /**
+         * B
+         *
+         * @dgen.annotate field {}
+         */
+        static class B {
+            /** X */
+            int x;
+        }
+
+        /**
+         * C
+         *
+         * @dgen.annotate method {}
+         */
+        class C {
+            /**
+             * C constructor
+             *
+             * @param value value
+             */
+            C(int value) {}
+        }
+
+        class D {
+            D(@com.devexperts.dgen.runtime.Description("Explicit") int value) {}
+        }
+    }
+
+    /**
+     * E
+     *
+     * @dgen.annotate method {}
+     */
+    enum E {
+        ;
+
+        /**
+         * E constructor
+         *
+         * @param value value
+         */
+        E(String value) {}
+    }
+
+    @Test
+    public void descriptionsShouldBeReadFromCompanion() throws ReflectiveOperationException {
+        assertEquals("A", Descriptions.getDescription(A.class));
+        assertEquals("B", Descriptions.getDescription(A.B.class));
+        assertEquals("X", Descriptions.getDescription(A.class.getDeclaredField("x")));
+        assertEquals("X", Descriptions.getDescription(A.B.class.getDeclaredField("x")));
+
+        Method f = A.class.getDeclaredMethod("f", int.class, String.class);
+        assertEquals("F", Descriptions.getDescription(f));
+        assertEquals("first", Descriptions.getParameterDescription(f, 0));
+        assertEquals("", Descriptions.getParameterDescription(f, 1));
+        assertNull(Descriptions.getParameterDescription(f, 2));
+    }
+
+    @Test
+    public void implicitConstructorParametersShouldBeSkipped() throws ReflectiveOperationException {
+        Constructor<?> c = A.C.class.getDeclaredConstructor(A.class, int.class);
+        assertEquals("C constructor", Descriptions.getDescription(c));
+        assertEquals("value", Descriptions.getParameterDescription(c, 0));
+        assertNull(Descriptions.getParameterDescription(c, 1));
+
+        Constructor<?> e = E.class.getDeclaredConstructor(String.class, int.class, String.class);
+        assertEquals("E constructor", Descriptions.getDescription(e));
+        assertEquals("value", Descriptions.getParameterDescription(e, 0));
+        assertNull(Descriptions.getParameterDescription(e, 1));
+
+        Constructor<?> d = A.D.class.getDeclaredConstructor(A.class, int.class);
+        assertEquals("Explicit", Descriptions.getParameterDescription(d, 0));
+    }
+
+    @Test
+    public void explicitAnnotationsShouldBeUsedAsFallback() throws ReflectiveOperationException {
+        assertEquals("Explicit", Descriptions.getDescription(A.class.getDeclaredField("y")));
+        assertNull(Descriptions.getDescription(A.class.getDeclaredField("z")));
+        assertNull(Descriptions.getDescription(DescriptionsTest.class));
+    }
+
+    @Test
+    public void lookupsShouldBeCached() throws ReflectiveOperationException {
+        Method f = A.class.getDeclaredMethod("f", int.class, String.class);
+        assertSame(Descriptions.getDescription(f), Descriptions.getDescription(f));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that classes excluded by configuration are skipped before parsing of Javadoc.
+ */
+public class ExcludedClassesTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    hasAnnotation = \"sample.Generated\";\n" +
+        "    options { exclude = true; }\n" +
+        "}\n" +
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    field {}\n" +
+        "    method {}\n" +
+        "}\n";
+
+    private static final String GENERATED =
+        "package sample;\n" +
+        "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.SOURCE)\n" +
+        "public @interface Generated {}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void excludedClassesShouldNotBeParsed() throws Exception {
+        int members = 100;
+        StringBuilder message = new StringBuilder("package sample;\n@Generated\npublic class Message {\n");
+        for (int i = 0; i < members; i++) {
+            message.append("    /** Field ").append(i).append(". */ public int field").append(i).append(";\n")
+                .append("    /** Returns field ").append(i).append(". */ public int getField").append(i)
+                .append("() { return field").append(i).append("; }\n");
+        }
+        message.append("    /** Nested builder. */ public static class Builder { /** Builds. */ void build() {} }\n");
+
+        Path root = folder.newFolder().toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        Map<String, String> sources = new HashMap<>();
+        sources.put("sample.Generated", GENERATED);
+        sources.put("sample.Message", message.append("}\n").toString());
+        DgenProcessor processor = new DgenProcessor();
+        TestCompiler.compile(root, sources, processor, "-Adgen.config=" + configuration);
+
+        // only Javadoc of Generated annotation type is looked up
+        assertEquals(1, processor.getStatistics().getDocCommentLookups());
+        // exclusion rule for Message, both rules for Generated
+        assertEquals(1 + 2, processor.getStatistics().getPredicateEvaluations());
+    }
+}
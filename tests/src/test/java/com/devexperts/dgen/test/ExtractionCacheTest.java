@@ -0,0 +1,94 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.runtime.Descriptions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests reuse of descriptions extracted in previous compilations ({@code -Adgen.cache}).
+ */
+public class ExtractionCacheTest {
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "/**\n" +
+        " * Service.\n" +
+        " * @dgen.annotate method {}\n" +
+        " */\n" +
+        "public class Service {\n" +
+        "    /**\n" +
+        "     * %s\n" +
+        "     * @param address address.\n" +
+        "     */\n" +
+        "    public void connect(String address) {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void unchangedSourceShouldReuseCachedDescriptions() throws Exception {
+        Path cache = folder.getRoot().toPath().resolve("cache");
+        compile("first", "Connects.", cache);
+        Path entry = cache.resolve("sample.Service.dgen");
+        assertTrue(Files.isRegularFile(entry));
+
+        // replace cached text to make sure that Javadoc isn't parsed again
+        byte[] bytes = Files.readAllBytes(entry);
+        String content = new String(bytes, StandardCharsets.ISO_8859_1);
+        Files.write(entry, content.replace("Connects.", "Attaches.").getBytes(StandardCharsets.ISO_8859_1));
+
+        Method connect = compile("second", "Connects.", cache);
+        assertEquals("Attaches.", Descriptions.getDescription(connect));
+        assertEquals("address.", Descriptions.getParameterDescription(connect, 0));
+    }
+
+    @Test
+    public void changedSourceShouldBeExtractedAgain() throws Exception {
+        Path cache = folder.getRoot().toPath().resolve("cache");
+        compile("first", "Connects.", cache);
+        Method connect = compile("second", "Opens connection.", cache);
+        assertEquals("Opens connection.", Descriptions.getDescription(connect));
+        assertEquals("Service.", Descriptions.getDescription(connect.getDeclaringClass()));
+    }
+
+    private Method compile(String directory, String methodDescription, Path cache) throws Exception {
+        Map<String, String> sources =
+            Collections.singletonMap("sample.Service", String.format(SOURCE, methodDescription));
+        TestCompiler.Result result = TestCompiler.compile(folder.newFolder(directory).toPath(), sources,
+            "-Adgen.cache=" + cache, "-Adgen.companions=true");
+        return result.newClassLoader().loadClass("sample.Service").getMethod("connect", String.class);
+    }
+}
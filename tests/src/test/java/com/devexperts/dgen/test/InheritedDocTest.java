@@ -0,0 +1,177 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.annotation.Description;
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.devexperts.dgen.test.Utils.getDescription;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests descriptions of overriding methods inherited from Javadoc of overridden methods.
+ */
+public class InheritedDocTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    method { name = \"close\"; options { retrieveStrategy = all; } }\n" +
+        "    method { access = public; }\n" +
+        "}\n";
+
+    private static final String SERVICE =
+        "package sample;\n" +
+        "public interface Service {\n" +
+        "    /**\n" +
+        "     * Connects to the service.\n" +
+        "     * @param address remote address.\n" +
+        "     * @return {@code true} if connected.\n" +
+        "     */\n" +
+        "    boolean connect(String address);\n" +
+        "    /** Closes the service. */\n" +
+        "    void close();\n" +
+        "}\n";
+
+    private static final String ABSTRACT_SERVICE =
+        "package sample;\n" +
+        "public abstract class AbstractService implements Service {\n" +
+        "    public void close() {}\n" +
+        "}\n";
+
+    private static final String DEFAULT_SERVICE =
+        "package sample;\n" +
+        "public class DefaultService extends AbstractService {\n" +
+        "    public boolean connect(String host) { return true; }\n" +
+        "    /** {@inheritDoc} Retries once. */\n" +
+        "    public void close() {}\n" +
+        "    public static void create() {}\n" +
+        "}\n";
+
+    private static final String QUIET_SERVICE =
+        "package sample;\n" +
+        "public abstract class QuietService extends AbstractService {\n" +
+        "    /** Closes quietly. */\n" +
+        "    public void close() {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void overridingMethodsShouldInheritDescriptions() throws Exception {
+        ClassLoader loader = compile("inherit", new DgenProcessor(), "-Adgen.inheritDoc=true").newClassLoader();
+        Class<?> defaultService = loader.loadClass("sample.DefaultService");
+        Method connect = defaultService.getMethod("connect", String.class);
+        assertEquals("Connects to the service.", getDescription(connect));
+        assertEquals("remote address.", getDescription(connect, 0).value());
+        assertEquals("Closes the service. Retries once.", getDescription(defaultService.getMethod("close")));
+        assertNull(getDescription(defaultService.getMethod("create")));
+
+        Class<?> abstractService = loader.loadClass("sample.AbstractService");
+        assertEquals("Closes the service.", getDescription(abstractService.getMethod("close")));
+    }
+
+    @Test
+    public void inheritanceShouldBeDisabledByDefault() throws Exception {
+        ClassLoader loader = compile("disabled", new DgenProcessor()).newClassLoader();
+        Class<?> defaultService = loader.loadClass("sample.DefaultService");
+        Method connect = defaultService.getMethod("connect", String.class);
+        assertNull(getDescription(connect));
+        Description parameter = getDescription(connect, 0);
+        assertNull(parameter);
+    }
+
+    @Test
+    public void overriddenMethodsShouldBeResolvedOnce() throws Exception {
+        int implementations = 20;
+        DgenProcessor inheriting = new DgenProcessor();
+        compile("memoized", inheriting, implementations, "-Adgen.inheritDoc=true");
+        DgenProcessor notInheriting = new DgenProcessor();
+        compile("plain", notInheriting, implementations);
+        // methods of Service and of AbstractService (close and default constructor) are looked up once,
+        // not once per implementation
+        assertEquals(4, inheriting.getStatistics().getDocCommentLookups() -
+            notInheriting.getStatistics().getDocCommentLookups());
+    }
+
+    @Test
+    public void voidMethodsWithoutReturnTagShouldNotInherit() throws Exception {
+        Map<String, String> sources = new HashMap<>();
+        sources.put("sample.Service", SERVICE);
+        sources.put("sample.AbstractService", ABSTRACT_SERVICE);
+        sources.put("sample.QuietService", QUIET_SERVICE);
+        DgenProcessor inheriting = new DgenProcessor();
+        ClassLoader loader = compile("void", inheriting, sources, "-Adgen.inheritDoc=true").newClassLoader();
+        assertEquals("Closes quietly.", getDescription(loader.loadClass("sample.QuietService").getMethod("close")));
+        DgenProcessor notInheriting = new DgenProcessor();
+        compile("void-plain", notInheriting, sources);
+        // methods of Service are looked up for AbstractService.close only, complete Javadoc of void
+        // QuietService.close doesn't need methods of AbstractService
+        assertEquals(2, inheriting.getStatistics().getDocCommentLookups() -
+            notInheriting.getStatistics().getDocCommentLookups());
+    }
+
+    private TestCompiler.Result compile(String directory, DgenProcessor processor, String... options)
+        throws Exception
+    {
+        return compile(directory, processor, 0, options);
+    }
+
+    private TestCompiler.Result compile(String directory, DgenProcessor processor, int implementations,
+        String... options) throws Exception
+    {
+        Map<String, String> sources = new HashMap<>();
+        sources.put("sample.Service", SERVICE);
+        sources.put("sample.AbstractService", ABSTRACT_SERVICE);
+        sources.put("sample.DefaultService", DEFAULT_SERVICE);
+        for (int i = 0; i < implementations; i++) {
+            sources.put("sample.Service" + i, DEFAULT_SERVICE
+                .replace("DefaultService", "Service" + i)
+                .replace("extends AbstractService", "implements Service"));
+        }
+        return compile(directory, processor, sources, options);
+    }
+
+    private TestCompiler.Result compile(String directory, DgenProcessor processor, Map<String, String> sources,
+        String... options) throws Exception
+    {
+        Path root = folder.newFolder(directory).toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        String[] allOptions = new String[options.length + 1];
+        allOptions[0] = "-Adgen.config=" + configuration;
+        System.arraycopy(options, 0, allOptions, 1, options.length);
+        return TestCompiler.compile(root, sources, processor, allOptions);
+    }
+}
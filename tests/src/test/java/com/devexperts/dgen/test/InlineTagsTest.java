@@ -0,0 +1,132 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.devexperts.dgen.test.Utils.getDescription;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests rendering of inline Javadoc tags to plain text.
+ */
+public class InlineTagsTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    field { access = public; }\n" +
+        "    method { access = public; }\n" +
+        "}\n";
+
+    private static final String LIMITS =
+        "package sample;\n" +
+        "public class Limits {\n" +
+        "    public static final int MAX = 10;\n" +
+        "    public static final String NAME = \"pool\";\n" +
+        "}\n";
+
+    private static final String POOL =
+        "package sample;\n" +
+        "/** Pool of {@link java.util.List lists} limited by {@link Limits#MAX}. */\n" +
+        "public class Pool {\n" +
+        "    /** Maximal size, at most {@value Limits#MAX} elements. */\n" +
+        "    public int size;\n" +
+        "    /** Default timeout is {@value}. */\n" +
+        "    public static final long TIMEOUT = 5L;\n" +
+        "    /**\n" +
+        "     * Returns {@code true} if {@linkplain #size the size} is zero. See {@link Limits}.\n" +
+        "     * @param name pool name, {@value Limits#NAME} by default.\n" +
+        "     * @return {@literal <b>} marker.\n" +
+        "     */\n" +
+        "    public boolean isEmpty(String name) { return size == 0; }\n" +
+        "    /** Returns {@link #isEmpty(String)} of {@link java.util.Map.Entry}. */\n" +
+        "    public void check() {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void inlineTagsShouldBeRendered() throws Exception {
+        ClassLoader loader = compile("rendered", new DgenProcessor(), 0, 0, "-Adgen.renderInlineTags=true")
+            .newClassLoader();
+        Class<?> pool = loader.loadClass("sample.Pool");
+        assertEquals("Pool of lists limited by Limits.MAX.", getDescription(pool));
+        assertEquals("Maximal size, at most 10 elements.", getDescription(pool.getField("size")));
+        assertEquals("Default timeout is 5L.", getDescription(pool.getField("TIMEOUT")));
+        Method isEmpty = pool.getMethod("isEmpty", String.class);
+        assertEquals("Returns true if the size is zero.", getDescription(isEmpty));
+        assertEquals("pool name, \"pool\" by default.", getDescription(isEmpty, 0).value());
+        assertEquals("Returns isEmpty(String) of Entry.", getDescription(pool.getMethod("check")));
+    }
+
+    @Test
+    public void inlineTagsShouldBeKeptByDefault() throws Exception {
+        ClassLoader loader = compile("verbatim", new DgenProcessor(), 0, 0).newClassLoader();
+        Class<?> pool = loader.loadClass("sample.Pool");
+        assertEquals("pool name, {@value Limits#NAME} by default.",
+            getDescription(pool.getMethod("isEmpty", String.class), 0).value());
+    }
+
+    @Test
+    public void referencesShouldBeResolvedOncePerCompilationUnit() throws Exception {
+        DgenProcessor processor = new DgenProcessor();
+        compile("cached", processor, 10, 50, "-Adgen.renderInlineTags=true");
+        // 6 distinct unlabelled references of Pool, then Pool#isEmpty(String) of each Pools class,
+        // java.util.Map.Entry is fully qualified, so it is resolved once for all classes
+        assertEquals(6 + 10, processor.getStatistics().getReferenceResolutions());
+    }
+
+    private TestCompiler.Result compile(String directory, DgenProcessor processor, int poolClasses,
+        int pooledMethods, String... options) throws Exception
+    {
+        Path root = folder.newFolder(directory).toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        Map<String, String> sources = new HashMap<>();
+        sources.put("sample.Limits", LIMITS);
+        sources.put("sample.Pool", POOL);
+        for (int i = 0; i < poolClasses; i++) {
+            StringBuilder pools = new StringBuilder("package sample;\npublic class Pools" + i + " {\n");
+            for (int j = 0; j < pooledMethods; j++) {
+                pools.append("    /** Checks {@link Pool#isEmpty(String)} of {@link java.util.Map.Entry}. */\n")
+                    .append("    public void check").append(j).append("() {}\n");
+            }
+            sources.put("sample.Pools" + i, pools.append("}\n").toString());
+        }
+        String[] allOptions = new String[options.length + 1];
+        allOptions[0] = "-Adgen.config=" + configuration;
+        System.arraycopy(options, 0, allOptions, 1, options.length);
+        return TestCompiler.compile(root, sources, processor, allOptions);
+    }
+}
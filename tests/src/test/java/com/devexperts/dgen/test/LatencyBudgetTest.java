@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static com.devexperts.dgen.test.Utils.getDescription;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that descriptions are extracted with reduced fidelity when latency budget is exceeded.
+ */
+public class LatencyBudgetTest {
+
+    private static final int METHODS = 2000;
+
+    private static final String CONFIGURATION =
+        "class { name = \"sample\\..*\"; options { retrieveStrategy = all; } method { access = public; } }\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void exceededBudgetShouldFallBackToFirstSentence() throws Exception {
+        DgenProcessor processor = new DgenProcessor();
+        Path cache = folder.newFolder("cache").toPath();
+        Class<?> type = compile("budget", processor, "-Adgen.budgetMillis=1", "-Adgen.cache=" + cache);
+
+        assertTrue(processor.getStatistics().getDegradedElements() > 0);
+        assertEquals("First.", getDescription(type.getMethod("m" + (METHODS - 1))));
+        // degraded descriptions are not cached
+        try (Stream<Path> entries = Files.list(cache)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    @Test
+    public void unlimitedBudgetShouldKeepFullFidelity() throws Exception {
+        DgenProcessor processor = new DgenProcessor();
+        Class<?> type = compile("unlimited", processor);
+
+        assertEquals(0, processor.getStatistics().getDegradedElements());
+        assertEquals("First. Second.", getDescription(type.getMethod("m" + (METHODS - 1))));
+    }
+
+    private Class<?> compile(String name, DgenProcessor processor, String... options) throws Exception {
+        Path root = folder.newFolder(name).toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        StringBuilder source = new StringBuilder("package sample;\n/** Sample. */ public class Sample {\n");
+        for (int i = 0; i < METHODS; i++) {
+            source.append("    /** First. Second. */ public void m").append(i).append("() {}\n");
+        }
+        source.append("}\n");
+        String[] allOptions = new String[options.length + 1];
+        allOptions[0] = "-Adgen.config=" + configuration;
+        System.arraycopy(options, 0, allOptions, 1, options.length);
+        return TestCompiler.compile(root, Collections.singletonMap("sample.Sample", source.toString()), processor,
+            allOptions).newClassLoader().loadClass("sample.Sample");
+    }
+}
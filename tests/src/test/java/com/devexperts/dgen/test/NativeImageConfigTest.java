@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests generated native-image reflection configuration.
+ */
+@SuppressWarnings("ALL")
+public class NativeImageConfigTest {
+
+    private static final String CONFIG_PATH =
+        "META-INF/native-image/com.devexperts.dgen/tests/com.devexperts.dgen.test.NativeImageConfigTest/reflect-config.json";
+
+    /**
+     * A
+     *
+     * @dgen.annotate field { access = public; } method {}
+     */
+    static class A {
+
+        /** X */
+        public int x;
+
+        /** Y */
+        private int y;
+
+        /** F */
+        void f(int a, String[] b, B c) {}
+
+        static class B {
+            /** Z */
+            int z;
+        }
+    }
+
+    static class C {
+        /**
+         * Not annotated, because class rule isn't matched.
+         */
+        int x;
+    }
+
+    @Test
+    public void configShouldContainOnlyAnnotatedElements() throws IOException {
+        assertEquals(
+            "[\n" +
+            "  {\n" +
+            "    \"name\": \"com.devexperts.dgen.test.NativeImageConfigTest$A\",\n" +
+            "    \"fields\": [\n" +
+            "      { \"name\": \"x\" }\n" +
+            "    ],\n" +
+            "    \"methods\": [\n" +
+            "      { \"name\": \"f\", \"parameterTypes\": [\"int\", \"java.lang.String[]\", " +
+                "\"com.devexperts.dgen.test.NativeImageConfigTest$A$B\"] }\n" +
+            "    ]\n" +
+            "  },\n" +
+            "  {\n" +
+            "    \"name\": \"com.devexperts.dgen.test.NativeImageConfigTest$Descriptions\",\n" +
+            "    \"methods\": [\n" +
+            "      { \"name\": \"describe\", \"parameterTypes\": [\"java.lang.String\"] }\n" +
+            "    ]\n" +
+            "  }\n" +
+            "]\n",
+            readResource(CONFIG_PATH)
+        );
+    }
+
+    @Test
+    public void configShouldNotBeGeneratedForClassesWithoutDescriptions() throws IOException {
+        assertNull(getClass().getClassLoader().getResource(
+            "META-INF/native-image/com.devexperts.dgen/tests/com.devexperts.dgen.test.Utils/reflect-config.json"));
+    }
+
+    private static String readResource(String path) throws IOException {
+        try (InputStream in = NativeImageConfigTest.class.getClassLoader().getResourceAsStream(path)) {
+            assertNotNull(path + " should exist", in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
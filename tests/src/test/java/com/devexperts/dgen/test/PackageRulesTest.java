@@ -0,0 +1,124 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.devexperts.dgen.test.Utils.getDescription;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests default rules of a package defined by {@code @dgen.annotate} tag in Javadoc of {@code package-info.java}.
+ */
+public class PackageRulesTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \".*\";\n" +
+        "    field {}\n" +
+        "}\n";
+
+    private static final String PACKAGE_INFO =
+        "/**\n" +
+        " * Sample package.\n" +
+        " * @dgen.annotate options { retrieveStrategy = all; } method { access = public; }\n" +
+        " */\n" +
+        "package sample;\n";
+
+    private static final String MEMBERS =
+        "    /** Field. */ public int field;\n" +
+        "    /** Gets. More. */ public int get() { return 0; }\n" +
+        "    /** Nested. Details. */ public static class Nested {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void packageRuleShouldOverrideConfigurationFile() throws Exception {
+        Map<String, String> sources = new HashMap<>();
+        sources.put("sample.package-info", PACKAGE_INFO);
+        sources.put("sample.A", "package sample;\n/** A. Details. */ public class A {\n" + MEMBERS);
+        sources.put("sample.B", "package sample;\n/** B. Details.\n @dgen.annotate field {} */ public class B {\n" +
+            MEMBERS);
+        sources.put("other.C", "package other;\n/** C. Details. */ public class C {\n" + MEMBERS);
+        DgenProcessor processor = new DgenProcessor();
+        ClassLoader loader = compile(sources, processor).newClassLoader();
+
+        // package rule
+        Class<?> a = loader.loadClass("sample.A");
+        assertEquals("A. Details.", getDescription(a));
+        assertEquals("Gets. More.", getDescription(a.getMethod("get")));
+        assertEquals(null, getDescription(a.getField("field")));
+        assertEquals("Nested. Details.", getDescription(loader.loadClass("sample.A$Nested")));
+        // class tag supersedes package rule
+        Class<?> b = loader.loadClass("sample.B");
+        assertEquals("B.", getDescription(b));
+        assertEquals(null, getDescription(b.getMethod("get")));
+        assertEquals("Field.", getDescription(b.getField("field")));
+        // configuration file in packages without tag
+        Class<?> c = loader.loadClass("other.C");
+        assertEquals("C.", getDescription(c));
+        assertEquals(null, getDescription(c.getMethod("get")));
+        assertEquals("Field.", getDescription(c.getField("field")));
+
+        // sample and other packages
+        assertEquals(2, processor.getStatistics().getPackageRuleLookups());
+    }
+
+    @Test
+    public void changedPackageRuleShouldInvalidateCache() throws Exception {
+        String cache = "-Adgen.cache=" + folder.getRoot().toPath().resolve("cache");
+        Map<String, String> sources = new HashMap<>();
+        sources.put("sample.package-info", PACKAGE_INFO);
+        sources.put("sample.A", "package sample;\n/** A. Details. */ public class A {\n" + MEMBERS);
+        compile(sources, new DgenProcessor(), cache);
+
+        sources.put("sample.package-info", PACKAGE_INFO.replace("all", "firstSentence"));
+        Class<?> a = compile(sources, new DgenProcessor(), cache).newClassLoader().loadClass("sample.A");
+        assertEquals("A.", getDescription(a));
+        assertEquals("Gets.", getDescription(a.getMethod("get")));
+    }
+
+    private TestCompiler.Result compile(Map<String, String> sources, DgenProcessor processor, String... options)
+        throws Exception
+    {
+        Path root = folder.newFolder().toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        List<String> allOptions = new ArrayList<>(Arrays.asList(options));
+        allOptions.add("-Adgen.config=" + configuration);
+        return TestCompiler.compile(root, sources, processor, allOptions.toArray(new String[0]));
+    }
+}
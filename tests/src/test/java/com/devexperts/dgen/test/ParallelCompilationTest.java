@@ -0,0 +1,135 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs many compilations with dgen processor concurrently in one JVM, as persistent workers
+ * and parallel builds do, and checks that all of them produce identical results.
+ */
+public class ParallelCompilationTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 3;
+    private static final int CLASSES = 10;
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\.Service.*\";\n" +
+        "    method { access = public; }\n" +
+        "    field { isStatic = true; }\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void concurrentCompilationsShouldProduceIdenticalResults() throws Exception {
+        Path configuration = folder.getRoot().toPath().resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        Map<String, String> sources = new HashMap<>();
+        for (int i = 0; i < CLASSES; i++) {
+            sources.put("sample.Service" + i, source(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            Map<String, byte[]> expected = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                CyclicBarrier barrier = new CyclicBarrier(THREADS);
+                List<Future<Map<String, byte[]>>> results = new ArrayList<>();
+                for (int thread = 0; thread < THREADS; thread++) {
+                    Path directory = folder.newFolder("round" + round + "-thread" + thread).toPath();
+                    results.add(executor.submit(() -> {
+                        barrier.await();
+                        return outputs(TestCompiler.compile(directory, sources, "-Adgen.config=" + configuration,
+                            "-Adgen.companions=true", "-Adgen.nativeImage=sample/parallel").getOutputDirectory());
+                    }));
+                }
+                for (Future<Map<String, byte[]>> result : results) {
+                    Map<String, byte[]> outputs = result.get();
+                    if (expected == null) {
+                        expected = outputs;
+                        assertTrue(expected.containsKey("sample/Service0$Descriptions.class"));
+                    }
+                    assertEquals(expected.keySet(), outputs.keySet());
+                    for (Map.Entry<String, byte[]> output : outputs.entrySet()) {
+                        assertTrue(output.getKey(), Arrays.equals(expected.get(output.getKey()), output.getValue()));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String source(int index) {
+        return "package sample;\n" +
+            "/** Service " + index + ". */\n" +
+            "public class Service" + index + " {\n" +
+            "    /** Default timeout. */\n" +
+            "    public static final int TIMEOUT = " + index + ";\n" +
+            "    /**\n" +
+            "     * Connects to service " + index + ".\n" +
+            "     * @param address remote address.\n" +
+            "     */\n" +
+            "    public void connect(String address) {}\n" +
+            "    /** Nested options. */\n" +
+            "    public static class Options {\n" +
+            "        /** Retries. */\n" +
+            "        public static int retries;\n" +
+            "    }\n" +
+            "}\n";
+    }
+
+    private static Map<String, byte[]> outputs(Path directory) throws Exception {
+        Map<String, byte[]> outputs = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                outputs.put(directory.relativize(file).toString().replace('\\', '/'), Files.readAllBytes(file));
+            }
+        }
+        return outputs;
+    }
+}
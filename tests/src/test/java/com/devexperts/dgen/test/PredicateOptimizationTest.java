@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static com.devexperts.dgen.test.Utils.getDescription;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests that predicates of rules are evaluated from cheaper to more expensive ones.
+ */
+public class PredicateOptimizationTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    field { name = \"value.*\"; not { isStatic = true; } access = public; }\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void cheaperPredicatesShouldBeEvaluatedFirst() throws Exception {
+        int n = 10;
+        StringBuilder source = new StringBuilder("package sample;\npublic class Values {\n");
+        for (int i = 0; i < n; i++) {
+            source.append("    /** Constant. */ public static int valueConstant").append(i).append(";\n")
+                .append("    /** Hidden. */ private int valueHidden").append(i).append(";\n")
+                .append("    /** Value. */ public int value").append(i).append(";\n");
+        }
+        Path root = folder.newFolder().toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        DgenProcessor processor = new DgenProcessor();
+        Class<?> values = TestCompiler.compile(root,
+            Collections.singletonMap("sample.Values", source.append("}\n").toString()),
+            processor, "-Adgen.config=" + configuration).newClassLoader().loadClass("sample.Values");
+
+        assertEquals("Value.", getDescription(values.getField("value0")));
+        assertNull(getDescription(values.getField("valueConstant0")));
+        assertNull(getDescription(values.getDeclaredField("valueHidden0")));
+        // class rule has single predicate; field rule is "AND { NOT { isStatic }; access; name }":
+        // static fields are rejected by NOT and isStatic, private ones by access, names are matched for public ones
+        assertEquals(1 + n * (3 + 4 + 5), processor.getStatistics().getPredicateEvaluations());
+    }
+
+    @Test
+    public void classPredicatesShouldStayGuardedInMethodRules() throws Exception {
+        // extendsOrImplements can be applied to classes only, so it must not be evaluated before the name
+        String configuration =
+            "class {\n" +
+            "    name = \"sample\\..*\";\n" +
+            "    method { name = \"get.*\"; extendsOrImplements = \"java.lang.Object\"; }\n" +
+            "    method { access = public; }\n" +
+            "}\n";
+        Path root = folder.newFolder().toPath();
+        Path configurationFile = root.resolve("dgen.config");
+        Files.write(configurationFile, configuration.getBytes(StandardCharsets.UTF_8));
+        Class<?> runner = TestCompiler.compile(root,
+            Collections.singletonMap("sample.Runner",
+                "package sample;\npublic class Runner {\n    /** Runs. */ public void run() {}\n}\n"),
+            new DgenProcessor(), "-Adgen.config=" + configurationFile).newClassLoader().loadClass("sample.Runner");
+
+        assertEquals("Runs.", getDescription(runner.getMethod("run")));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests JDK Flight Recorder events of processor phases.
+ * <p>
+ * Events are compiled into multi-release jar of the processor, so the test is skipped when the processor is
+ * loaded from classes directory (e.g. by {@code mvn test} in the reactor) and isn't compiled for Java 8.
+ */
+public class ProcessorEventsTest {
+
+    private static final String[] EVENTS = {"ConfigurationLoad", "CompilationUnit", "DocCommentParse", "RuleMatch",
+        "AnnotationInjection"};
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    options { retrieveStrategy = all; annotateClass = true; }\n" +
+        "    method { access = public; }\n" +
+        "}\n";
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "/** Sample. Details. */ public class Sample {\n" +
+        "    /** Get. @param a value. */ public int get(int a) { return a; }\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void checkEvents() {
+        boolean available;
+        try {
+            Class.forName("com.devexperts.dgen.ProcessorEvents$PhaseEvent", false,
+                DgenProcessor.class.getClassLoader());
+            available = true;
+        } catch (ClassNotFoundException e) {
+            available = false;
+        }
+        assumeTrue("JFR events of multi-release jar are not loaded", available);
+    }
+
+    @Test
+    public void phasesShouldBeRecorded() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        Path dump = root.resolve("dgen.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : EVENTS) {
+                recording.enable("com.devexperts.dgen." + event).withoutThreshold();
+            }
+            recording.start();
+            TestCompiler.compile(root, Collections.singletonMap("sample.Sample", SOURCE), new DgenProcessor(),
+                "-Adgen.config=" + configuration);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertEquals(1, count(events, "ConfigurationLoad", null).size());
+        assertEquals(1, count(events, "ConfigurationLoad", null).get(0).getInt("memberCount"));
+
+        List<RecordedEvent> units = count(events, "CompilationUnit", "sample.Sample");
+        assertEquals(1, units.size());
+        // class, default constructor, method and its parameter
+        assertEquals(4, units.get(0).getInt("memberCount"));
+
+        assertEquals(4, count(events, "DocCommentParse", "sample.Sample").size());
+
+        List<RecordedEvent> ruleMatches = count(events, "RuleMatch", "sample.Sample");
+        // class, default constructor and method
+        assertEquals(3, ruleMatches.size());
+        List<String> strategies = new ArrayList<>();
+        for (RecordedEvent event : ruleMatches) {
+            strategies.add(event.getString("member") + ":" + event.getString("strategy"));
+        }
+        assertTrue(strategies.toString(), strategies.contains("null:ALL"));
+        assertTrue(strategies.toString(), strategies.contains("get:null"));
+
+        List<RecordedEvent> injections = count(events, "AnnotationInjection", "sample.Sample");
+        assertEquals(2, injections.size());
+        for (RecordedEvent event : injections) {
+            assertEquals(event.getString("member") == null ? 1 : 2, event.getInt("memberCount"));
+        }
+    }
+
+    private static List<RecordedEvent> count(List<RecordedEvent> events, String name, String className) {
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("com.devexperts.dgen." + name) &&
+                (className == null || className.equals(event.getString("className"))))
+            {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that the same sources produce byte-identical classes and resources regardless of line separators
+ * and order of sources, directories, the working directory and the default locale.
+ */
+public class ReproducibleOutputTest {
+
+    private static final String CONFIGURATION =
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    options { retrieveStrategy = all; }\n" +
+        "    method { access = public; options { retrieveStrategy = firstParagraph; } }\n" +
+        "    field { isStatic = true; }\n" +
+        "}\n";
+
+    private static final String SAMPLE =
+        "package sample;\n" +
+        "/**\n" +
+        " * Sample class\n" +
+        " * with multi-line description.\n" +
+        " * <p>\n" +
+        " * Details with {@code code}\n" +
+        " * and non-ASCII été text.\n" +
+        " */\n" +
+        "public class Sample {\n" +
+        "    /**\n" +
+        "     * Constant\n" +
+        "     * value.\n" +
+        "     */\n" +
+        "    public static final int VALUE = 1;\n" +
+        "    /**\n" +
+        "     * Gets value.\n" +
+        "     * Another sentence\n" +
+        "     * of the first paragraph.\n" +
+        "     *\n" +
+        "     * @param a first\n" +
+        "     *          parameter.\n" +
+        "     * @return value.\n" +
+        "     */\n" +
+        "    public int get(int a) { return a; }\n" +
+        "    /** Nested\n" +
+        "     * class. */\n" +
+        "    public static class Nested {}\n" +
+        "}\n";
+
+    private static final String OTHER =
+        "package sample;\n" +
+        "/**\n" +
+        " * Other\n" +
+        " * class.\n" +
+        " */\n" +
+        "public class Other {\n" +
+        "    /**\n" +
+        "     * Sets\n" +
+        "     * value.\n" +
+        "     */\n" +
+        "    public void set(String[] values) {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void annotationsAndCompanionsShouldBeReproducible() throws Exception {
+        assertReproducible("-Adgen.companions=true", "-Adgen.nativeImage=com.example/sample");
+    }
+
+    @Test
+    public void sidecarsShouldBeReproducible() throws Exception {
+        assertReproducible("-Adgen.sidecar=true", "-Adgen.nativeImage=com.example/sample");
+    }
+
+    private void assertReproducible(String... options) throws Exception {
+        Map<String, byte[]> expected = compile("first", "\n", Locale.ROOT, false, options);
+        Map<String, byte[]> actual = compile("second", "\r\n", new Locale("tr", "TR"), true, options);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), new String(entry.getValue(), StandardCharsets.ISO_8859_1),
+                new String(actual.get(entry.getKey()), StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    // output file -> content
+    private Map<String, byte[]> compile(String name, String lineSeparator, Locale locale, boolean reversed,
+        String... options) throws Exception
+    {
+        Path root = folder.newFolder(name).toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.replace("\n", lineSeparator).getBytes(StandardCharsets.UTF_8));
+        // sources are passed to compiler in different order
+        Map<String, String> sources = new LinkedHashMap<>();
+        if (reversed)
+            sources.put("sample.Other", OTHER.replace("\n", lineSeparator));
+        sources.put("sample.Sample", SAMPLE.replace("\n", lineSeparator));
+        if (!reversed)
+            sources.put("sample.Other", OTHER.replace("\n", lineSeparator));
+        String[] allOptions = new String[options.length + 1];
+        allOptions[0] = "-Adgen.config=" + configuration;
+        System.arraycopy(options, 0, allOptions, 1, options.length);
+
+        Locale defaultLocale = Locale.getDefault();
+        String userDir = System.getProperty("user.dir");
+        Path output;
+        try {
+            Locale.setDefault(locale);
+            System.setProperty("user.dir", root.toString());
+            output = TestCompiler.compile(root, sources, allOptions).getOutputDirectory();
+        } finally {
+            Locale.setDefault(defaultLocale);
+            System.setProperty("user.dir", userDir);
+        }
+        return readFiles(output);
+    }
+
+    private static Map<String, byte[]> readFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toMap(
+                file -> directory.relativize(file).toString().replace('\\', '/'),
+                file -> {
+                    try {
+                        return Files.readAllBytes(file);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                },
+                (a, b) -> a, TreeMap::new));
+        }
+    }
+}
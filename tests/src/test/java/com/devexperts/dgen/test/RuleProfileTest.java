@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests profiling of configuration rules.
+ */
+public class RuleProfileTest {
+
+    private static final String CONFIGURATION =
+        "class { name = \"other\\..*\"; }\n" +
+        "class {\n" +
+        "    name = \"sample\\..*\";\n" +
+        "    method { name = \"get.*\"; }\n" +
+        "    method { access = public; isStatic = true; }\n" +
+        "}\n";
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "/** Sample. */ public class Sample {\n" +
+        "    /** Get. */ public int getA() { return 0; }\n" +
+        "    /** Create. */ public static Sample create() { return null; }\n" +
+        "    /** Hidden. */ static void hidden() {}\n" +
+        "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rulesShouldBeProfiled() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path configuration = root.resolve("dgen.config");
+        Files.write(configuration, CONFIGURATION.getBytes(StandardCharsets.UTF_8));
+        Path profile = root.resolve("dgen-profile.txt");
+        DgenProcessor processor = new DgenProcessor();
+        TestCompiler.compile(root, Collections.singletonMap("sample.Sample", SOURCE), processor,
+            "-Adgen.config=" + configuration, "-Adgen.profile=" + profile);
+
+        List<String> report = Files.readAllLines(profile, StandardCharsets.UTF_8);
+        String location = configuration + ":";
+        // evaluations and matches of rules
+        assertEquals("1 0", counts(report, location + "1 class rule"));
+        assertEquals("1 1", counts(report, location + "2 class rule"));
+        // default constructor and three methods
+        assertEquals("4 1", counts(report, location + "4 method rule"));
+        assertEquals("3 1", counts(report, location + "5 method rule"));
+        // components of the rule, public methods are checked for static modifier
+        int rule = indexOf(report, location + "5 method rule");
+        List<String> predicates = report.subList(rule + 1, rule + 3);
+        assertEquals("3 2", counts(predicates, " access = PUBLIC;"));
+        assertEquals("2 1", counts(predicates, " isStatic = true;"));
+    }
+
+    private static int indexOf(List<String> report, String title) {
+        for (int i = 0; i < report.size(); i++) {
+            if (report.get(i).endsWith(title))
+                return i;
+        }
+        throw new AssertionError("No " + title + " in " + report);
+    }
+
+    private static String counts(List<String> report, String title) {
+        return counts(report.get(indexOf(report, title)));
+    }
+
+    // "<evaluations> <matches>" of report line
+    private static String counts(String line) {
+        String[] columns = line.trim().split("\\s+");
+        return columns[1] + " " + columns[2];
+    }
+}
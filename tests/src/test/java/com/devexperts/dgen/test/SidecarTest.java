@@ -0,0 +1,93 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.runtime.Descriptions;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that in sidecar mode description texts do not affect compiled classes.
+ */
+public class SidecarTest {
+
+    private static final String SOURCE =
+        "package sample;\n" +
+        "/**\n" +
+        " * %s\n" +
+        " * @dgen.annotate class {}\n" +
+        " * @dgen.annotate method {}\n" +
+        " */\n" +
+        "public class Service {\n" +
+        "    /**\n" +
+        "     * Connects.\n" +
+        "     * @param address %s\n" +
+        "     */\n" +
+        "    public void connect(String address) {}\n" +
+        "}\n";
+
+    private static final String CLASS_FILE = "sample/Service.class";
+    private static final String RESOURCE = "META-INF/dgen/sample.Service.properties";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void classFilesShouldNotDependOnDescriptions() throws Exception {
+        TestCompiler.Result first = compile("first", "Service.", "address.");
+        TestCompiler.Result second = compile("second", "Network service.", "remote address.");
+
+        assertArrayEquals(classBytes(first), classBytes(second));
+        assertFalse(first.read(RESOURCE).equals(second.read(RESOURCE)));
+        assertTrue(second.read(RESOURCE).contains("=Network service."));
+
+        Class<?> service = second.newClassLoader().loadClass("sample.Service");
+        Method connect = service.getMethod("connect", String.class);
+        assertEquals("Network service.", Descriptions.getDescription(service));
+        assertEquals("Connects.", Descriptions.getDescription(connect));
+        assertEquals("remote address.", Descriptions.getParameterDescription(connect, 0));
+    }
+
+    private TestCompiler.Result compile(String directory, String classDescription, String parameterDescription)
+        throws Exception
+    {
+        return TestCompiler.compile(folder.newFolder(directory).toPath(),
+            Collections.singletonMap("sample.Service", String.format(SOURCE, classDescription, parameterDescription)),
+            "-Adgen.sidecar=true");
+    }
+
+    private static byte[] classBytes(TestCompiler.Result result) throws Exception {
+        Path path = result.getOutputDirectory().resolve(CLASS_FILE);
+        return Files.readAllBytes(path);
+    }
+}
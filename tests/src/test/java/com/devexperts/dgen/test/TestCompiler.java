@@ -0,0 +1,155 @@
+/*
+ * #%L
+ * Dgen - Description generator
+ * %%
+ * Copyright (C) 2015 - 2020 Devexperts, LLC
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/gpl-3.0.html>.
+ * #L%
+ */
+package com.devexperts.dgen.test;
+
+import com.devexperts.dgen.DgenProcessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles sources with {@link DgenProcessor} in the current JVM.
+ */
+public class TestCompiler {
+
+    // Utility class
+    private TestCompiler() {
+    }
+
+    /**
+     * Compiles specified sources with dgen processor.
+     *
+     * @param directory directory for sources and compiled classes.
+     * @param sources   map: qualified class name -&gt; source code.
+     * @param options   compiler options, e.g. {@code -Adgen.config=...}.
+     * @return compilation result.
+     * @throws AssertionError if compilation failed.
+     */
+    public static Result compile(Path directory, Map<String, String> sources, String... options) throws IOException {
+        return compile(directory, sources, new DgenProcessor(), options);
+    }
+
+    /**
+     * Compiles specified sources with specified dgen processor instance.
+     *
+     * @see #compile(Path, Map, String...)
+     */
+    public static Result compile(Path directory, Map<String, String> sources, DgenProcessor processor,
+        String... options) throws IOException
+    {
+        Path sourceDirectory = Files.createDirectories(directory.resolve("src"));
+        Path outputDirectory = Files.createDirectories(directory.resolve("classes"));
+        List<Path> sourceFiles = new ArrayList<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = sourceDirectory.resolve(source.getKey().replace('.', '/') + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, source.getValue().getBytes(StandardCharsets.UTF_8));
+            sourceFiles.add(file);
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager =
+            compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8))
+        {
+            List<String> allOptions = new ArrayList<>(Arrays.asList(
+                "-d", outputDirectory.toString(),
+                "-s", outputDirectory.toString(),
+                "-classpath", System.getProperty("java.class.path")
+            ));
+            allOptions.addAll(Arrays.asList(options));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, allOptions,
+                null, fileManager.getJavaFileObjectsFromFiles(
+                    sourceFiles.stream().map(Path::toFile).collect(Collectors.toList())));
+            task.setProcessors(Collections.singletonList(processor));
+            boolean success = task.call();
+            List<String> errors = diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(Locale.ROOT))
+                .collect(Collectors.toList());
+            if (!success || !errors.isEmpty())
+                throw new AssertionError("Compilation failed: " + errors);
+        }
+        return new Result(outputDirectory);
+    }
+
+    /**
+     * Result of successful compilation.
+     */
+    public static class Result {
+        private final Path outputDirectory;
+
+        private Result(Path outputDirectory) {
+            this.outputDirectory = outputDirectory;
+        }
+
+        /**
+         * @return directory with compiled classes, generated sources and resources.
+         */
+        public Path getOutputDirectory() {
+            return outputDirectory;
+        }
+
+        /**
+         * @return new class loader for compiled classes, parent is the test class loader.
+         */
+        public ClassLoader newClassLoader() {
+            try {
+                return new URLClassLoader(new URL[] {outputDirectory.toUri().toURL()},
+                    TestCompiler.class.getClassLoader());
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * @return content of specified output file or {@code null} if it doesn't exist.
+         */
+        public String read(String path) {
+            Path file = outputDirectory.resolve(path);
+            try {
+                return Files.exists(file) ? new String(Files.readAllBytes(file), StandardCharsets.UTF_8) : null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}